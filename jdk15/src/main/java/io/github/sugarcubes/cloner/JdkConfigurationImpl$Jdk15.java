@@ -15,6 +15,7 @@
  */
 package io.github.sugarcubes.cloner;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.util.Arrays;
 
@@ -34,4 +35,10 @@ class JdkConfigurationImpl$Jdk15 extends JdkConfigurationImpl$Jdk9 {
         systemWideSingletons.addAll(Arrays.asList(archivedObjects));
     }
 
+    @Override
+    public Class<?> defineHiddenClass(byte[] bytecode) {
+        // Unsafe.defineAnonymousClass() is deprecated since JDK 15 and removed in JDK 17
+        return ClonerExceptionUtils.replaceException(() -> MethodHandles.lookup().defineHiddenClass(bytecode, true).lookupClass());
+    }
+
 }
@@ -15,6 +15,9 @@
  */
 package io.github.sugarcubes.cloner;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -35,6 +38,10 @@ public class RecordTest {
 
     }
 
+    public record Owner(String name, List<Cat> cats) {
+
+    }
+
     @Test
     void testRecords() {
         Cat cat1 = new Cat("Kesha", 7, "Gray");
@@ -43,4 +50,16 @@ public class RecordTest {
         assertThat(cat2, equalTo(cat1));
     }
 
+    @Test
+    void testImmutableRecords() {
+        Cloner cloner = Cloners.builder().inferImmutability().build();
+        Cat cat = new Cat("Kesha", 7, "Gray");
+        assertThat(cloner.clone(cat), sameInstance(cat));
+        Owner owner = new Owner("John", new ArrayList<>(List.of(cat)));
+        Owner clone = cloner.clone(owner);
+        assertThat(clone, not(sameInstance(owner)));
+        assertThat(clone.cats(), not(sameInstance(owner.cats())));
+        assertThat(clone.cats().get(0), sameInstance(cat));
+    }
+
 }
@@ -0,0 +1,30 @@
+plugins {
+    id("java-conventions")
+    id("optional-dependencies")
+    id("checkstyle-conventions")
+    id("build-utils")
+    id("me.champeau.jmh") version "0.6.6"
+}
+
+dependencies {
+
+    implementation(project(":jdk8"))
+    implementation(project(":jdk9"))
+    implementation(project(":jdk15"))
+    implementation(project(":jdk16"))
+
+    testImplementation(testFixtures(project(":jdk8")))
+    testImplementation("org.hamcrest:hamcrest:2.2")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.0")
+
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+jmh {
+    jvmArgs.addAll(utils.modulesJvmArgs("--add-opens"))
+}
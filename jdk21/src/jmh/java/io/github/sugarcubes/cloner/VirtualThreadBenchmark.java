@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for cloning in virtual threads against the parallel mode in the common fork-join pool.
+ *
+ * @author Maxim Butov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@SuppressWarnings("checkstyle:all")
+public class VirtualThreadBenchmark {
+
+    static class Node {
+        int value;
+        Node next;
+        Node[] children;
+    }
+
+    private Cloner parallel;
+    private Cloner virtual;
+
+    private Object graph;
+    private Object tree;
+
+    @Setup
+    public void setup() {
+
+        parallel = Cloners.builder().mode(CloningMode.PARALLEL).build();
+        virtual = Cloners.builder().mode(CloningMode.VIRTUAL).build();
+
+        Random random = new Random(0);
+        List<Node> nodes = new ArrayList<>();
+        for (int k = 0; k < 1_000_000; k++) {
+            Node node = new Node();
+            node.value = k;
+            nodes.add(node);
+        }
+        nodes.forEach(node -> node.next = nodes.get(random.nextInt(nodes.size())));
+        graph = nodes;
+
+        tree = tree(8, 6);
+
+    }
+
+    private static Node tree(int width, int depth) {
+        Node node = new Node();
+        if (depth > 0) {
+            node.children = new Node[width];
+            for (int k = 0; k < width; k++) {
+                node.children[k] = tree(width, depth - 1);
+            }
+        }
+        return node;
+    }
+
+    @Benchmark
+    public Object parallelGraph() {
+        return parallel.clone(graph);
+    }
+
+    @Benchmark
+    public Object virtualGraph() {
+        return virtual.clone(graph);
+    }
+
+    @Benchmark
+    public Object parallelTree() {
+        return parallel.clone(tree);
+    }
+
+    @Benchmark
+    public Object virtualTree() {
+        return virtual.clone(tree);
+    }
+
+}
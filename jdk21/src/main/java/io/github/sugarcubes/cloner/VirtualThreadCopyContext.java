@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy context for parallel copying in virtual threads. Like {@link ForkJoinCopyContext}, every thread processes
+ * a local batch of the delayed actions and starts a new thread for a part of the batch while the number of the running
+ * batches is small.
+ * <p>
+ * The threads are scoped to the single {@link #complete()} call: it does not return until all of them are finished.
+ * The first failure (or the interruption of the calling thread) interrupts all the running threads, and stops
+ * the rest of the actions. The context never locks the original objects, so the virtual threads are not pinned
+ * to their carrier threads.
+ *
+ * @author Maxim Butov
+ */
+public class VirtualThreadCopyContext extends AbstractCopyContext {
+
+    /**
+     * Maximal number of the running batches per available processor.
+     */
+    private static final int BATCHES_PER_PROCESSOR = 4;
+
+    /**
+     * Maximal number of the running batches.
+     */
+    private static final int MAX_BATCHES = BATCHES_PER_PROCESSOR * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Factory of the virtual threads.
+     */
+    private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("cloner-", 0).factory();
+
+    /**
+     * Actions which are delayed before the start of {@link #complete()}.
+     */
+    private final Deque<Callable<?>> initialBatch = new ArrayDeque<>();
+
+    /**
+     * Batch which is processed by the current thread.
+     */
+    private final ThreadLocal<Deque<Callable<?>>> currentBatch = new ThreadLocal<>();
+
+    /**
+     * Number of the running batches.
+     */
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * Signaled when all the batches are processed or copying has failed.
+     */
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /**
+     * The first exception thrown by an action.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Split threshold.
+     */
+    private final int splitThreshold;
+
+    /**
+     * Executor of the current {@link #complete()} call.
+     */
+    private volatile ExecutorService executor;
+
+    /**
+     * Creates an instance with the default split threshold.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     */
+    public VirtualThreadCopyContext(CopierProvider copierProvider, CloneTable predefined) {
+        this(copierProvider, predefined, DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     * @param splitThreshold split threshold, see {@link #getSplitThreshold()}
+     */
+    public VirtualThreadCopyContext(CopierProvider copierProvider, CloneTable predefined, int splitThreshold) {
+        super(copierProvider, predefined, ConcurrentCloneTable::new);
+        this.splitThreshold = splitThreshold;
+    }
+
+    @Override
+    public void thenInvoke(Callable<?> task) throws Exception {
+        Deque<Callable<?>> batch = currentBatch.get();
+        (batch != null ? batch : initialBatch).addLast(task);
+    }
+
+    @Override
+    public int getSplitThreshold() {
+        return splitThreshold;
+    }
+
+    @Override
+    public void complete() throws Throwable {
+        if (initialBatch.isEmpty()) {
+            return;
+        }
+        Deque<Callable<?>> batch = new ArrayDeque<>(initialBatch);
+        initialBatch.clear();
+        boolean interrupted = false;
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(THREAD_FACTORY)) {
+            this.executor = executor;
+            start(batch);
+            try {
+                done.await();
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+                fail(e);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a new thread which processes the batch.
+     *
+     * @param batch batch of the delayed actions
+     */
+    private void start(Deque<Callable<?>> batch) {
+        running.incrementAndGet();
+        executor.execute(() -> process(batch));
+    }
+
+    /**
+     * Processes the batch in depth-first order. Moves the older half of the batch into a new thread, while there are
+     * few running batches.
+     *
+     * @param batch batch of the delayed actions
+     */
+    private void process(Deque<Callable<?>> batch) {
+        currentBatch.set(batch);
+        try {
+            for (Callable<?> next; failure.get() == null && (next = batch.pollLast()) != null; ) {
+                next.call();
+                if (batch.size() > 1 && running.get() < MAX_BATCHES) {
+                    Deque<Callable<?>> forked = new ArrayDeque<>();
+                    for (int count = batch.size() >> 1; count > 0; count--) {
+                        forked.addLast(batch.pollFirst());
+                    }
+                    start(forked);
+                }
+            }
+        }
+        catch (Throwable e) {
+            fail(e);
+        }
+        finally {
+            currentBatch.remove();
+            if (running.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Records the first failure and cancels all the running threads.
+     *
+     * @param e exception
+     */
+    private void fail(Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+            executor.shutdownNow();
+            done.countDown();
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of the cancellation in the virtual threads mode.
+ *
+ * @author Maxim Butov
+ */
+public class VirtualThreadCancellationTest {
+
+    static class Failing {
+    }
+
+    static class Slow {
+    }
+
+    @Test
+    void testFailureCancelsRunningThreads() {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Cloner cloner = Cloners.builder()
+            .mode(CloningMode.VIRTUAL)
+            .splitThreshold(1)
+            .copier(Failing.class, (original, context) -> {
+                started.await(10, TimeUnit.SECONDS);
+                throw new IllegalStateException("Failure.");
+            })
+            .copier(Slow.class, (original, context) -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                }
+                catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return context.register(new Slow());
+            })
+            .build();
+        long start = System.nanoTime();
+        ClonerException e = assertThrows(ClonerException.class, () -> cloner.clone(new Object[] {new Failing(), new Slow()}));
+        assertThat(e.getCause().getMessage(), equalTo("Failure."));
+        assertThat(interrupted.get(), equalTo(true));
+        assertThat(System.nanoTime() - start, lessThan(TimeUnit.SECONDS.toNanos(10)));
+    }
+
+    @Test
+    void testInterruptionCancelsRunningThreads() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Cloner cloner = Cloners.builder()
+            .mode(CloningMode.VIRTUAL)
+            .copier(Slow.class, (original, context) -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                }
+                catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return context.register(new Slow());
+            })
+            .build();
+        AtomicBoolean failed = new AtomicBoolean();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                cloner.clone(new Object[] {new Slow()});
+            }
+            catch (ClonerException e) {
+                failed.set(e.getCause() instanceof InterruptedException && Thread.currentThread().isInterrupted());
+            }
+        });
+        started.await();
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(failed.get(), equalTo(true));
+        assertThat(interrupted.get(), equalTo(true));
+    }
+
+}
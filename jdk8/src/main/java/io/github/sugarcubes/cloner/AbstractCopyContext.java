@@ -16,8 +16,8 @@
 package io.github.sugarcubes.cloner;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Abstract copy context. Contains common code for the context implementations.
@@ -31,10 +31,35 @@ public abstract class AbstractCopyContext implements CopyContext {
      */
     private final CopierProvider copierProvider;
 
+    /**
+     * System-wide singletons and predefined clones. Shared by all the contexts of the cloner, never modified.
+     */
+    private final CloneTable predefined;
+
     /**
      * Previously copied objects.
      */
-    private final Map<IdentityReference<Object>, Object[]> clones;
+    private final CloneTable clones;
+
+    /**
+     * Context for the objects which are never shared.
+     */
+    private final CopyContext unsharedContext = new UnsharedCopyContext(this);
+
+    /**
+     * Unshared objects visited so far. Not {@code null} only if assertions are enabled.
+     */
+    private final CloneTable unsharedVisited;
+
+    /**
+     * Whether to check that the objects declared as unshared are really visited only once.
+     */
+    private static final boolean VERIFY_UNSHARED = AbstractCopyContext.class.desiredAssertionStatus();
+
+    /**
+     * Default split threshold of the parallel contexts, see {@link CopyContext#getSplitThreshold()}.
+     */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 4096;
 
     /**
      * JDK configuration.
@@ -42,25 +67,38 @@ public abstract class AbstractCopyContext implements CopyContext {
     private static final JdkConfiguration JDK_CONFIGURATION = JdkConfigurationHolder.CONFIGURATION;
 
     /**
-     * Predefined system-wide singletons as map.
+     * Predefined system-wide singletons.
      */
-    @SuppressWarnings("checkstyle:Indentation")
-    private static final Map<IdentityReference<Object>, Object[]> SYSTEM_SINGLETONS_AS_MAP =
-        JDK_CONFIGURATION.getSystemWideSingletons().stream()
-            .collect(Collectors.toMap(IdentityReference::new, singleton -> new Object[] {singleton}));
+    private static final Set<Object> SYSTEM_SINGLETONS = JDK_CONFIGURATION.getSystemWideSingletons();
 
     /**
-     * Creates context with specified copier provider, clones map and predefined cloned objects.
+     * Creates context with specified copier provider, predefined cloned objects and clone table.
      *
      * @param copierProvider copier provider
-     * @param cacheSupplier cache supplier
-     * @param clones predefined cloned objects
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     * @param tableSupplier clone table supplier
      */
-    protected AbstractCopyContext(CopierProvider copierProvider, Supplier<Map<?, ?>> cacheSupplier, Map<Object, Object> clones) {
+    protected AbstractCopyContext(CopierProvider copierProvider, CloneTable predefined,
+        Supplier<? extends CloneTable> tableSupplier) {
         this.copierProvider = copierProvider;
-        this.clones = (Map) cacheSupplier.get();
-        this.clones.putAll(SYSTEM_SINGLETONS_AS_MAP);
-        clones.forEach((key, value) -> this.clones.put(new IdentityReference<>(key), new Object[] {value}));
+        this.predefined = predefined;
+        this.clones = tableSupplier.get();
+        this.unsharedVisited = VERIFY_UNSHARED ? tableSupplier.get() : null;
+    }
+
+    /**
+     * Creates the table of the system-wide singletons and the predefined clones. The table is built once
+     * and shared by all the contexts of the cloner, so the cost of the context creation does not depend
+     * on the number of the predefined objects.
+     *
+     * @param clones predefined cloned objects
+     * @return table of the predefined clones
+     */
+    public static CloneTable predefinedClones(Map<Object, Object> clones) {
+        CloneTable table = new IdentityCloneTable();
+        SYSTEM_SINGLETONS.forEach(singleton -> table.put(singleton, singleton));
+        clones.forEach(table::put);
+        return table;
     }
 
     @Override
@@ -73,8 +111,14 @@ public abstract class AbstractCopyContext implements CopyContext {
         if (original == null) {
             return null;
         }
+        return copy(original, copierProvider.getCopier(original));
+    }
 
-        ObjectCopier<T> copier = copierProvider.getCopier(original);
+    @Override
+    public <T> T copy(T original, ObjectCopier<T> copier) throws Exception {
+        if (original == null) {
+            return null;
+        }
 
         // trivial cases
         if (copier == ObjectCopier.NOOP) {
@@ -84,10 +128,30 @@ public abstract class AbstractCopyContext implements CopyContext {
             return null;
         }
 
+        // immutable collection of immutable elements
+        if (copier instanceof ImmutableCollectionCopier && ImmutableCollectionCopier.isUnchanged(original, copierProvider)) {
+            return original;
+        }
+
+        // no identity tracking
+        if (copier instanceof UnsharedCopier) {
+            return copyUnshared(original, copier);
+        }
+
         // non-trivial case
         return doClone(original, copier);
     }
 
+    @Override
+    public <T> ObjectCopier<T> getTypeCopier(Class<T> type) {
+        return copierProvider.getTypeCopier(type);
+    }
+
+    @Override
+    public CopierProvider getCopierProvider() {
+        return copierProvider;
+    }
+
     /**
      * Complex copying which must return non-null and non-original object.
      *
@@ -97,21 +161,116 @@ public abstract class AbstractCopyContext implements CopyContext {
      * @return copy of the original object
      * @throws Exception if something went wrong
      */
+    @SuppressWarnings("unchecked")
     protected <T> T doClone(T original, ObjectCopier<T> copier) throws Exception {
-        Object[] cached = clones.computeIfAbsent(new IdentityReference<>(original), key -> new Object[1]);
-        T clone = (T) cached[0];
+        T clone = (T) predefined.get(original);
+        if (clone == null) {
+            clone = (T) clones.claim(original);
+        }
         if (clone != null) {
             return clone;
         }
-        RegistrationContext registration = new RegistrationContext(this, original, cached);
-        clone = copier.copy(original, registration);
+        try {
+            if (copier instanceof TwoPhaseObjectCopier && ((TwoPhaseObjectCopier<T>) copier).standard) {
+                return copyTwoPhase(original, (TwoPhaseObjectCopier<T>) copier);
+            }
+            return copyRegistered(original, copier);
+        }
+        catch (Throwable e) {
+            clones.release(original);
+            throw e;
+        }
+    }
+
+    /**
+     * Copying with the standard two-phase copier. The clone is registered by the context itself, so, neither
+     * the registration wrapper nor the checks are needed.
+     *
+     * @param <T> object type
+     * @param original original object
+     * @param copier two-phase copier
+     * @return copy of the original object
+     * @throws Exception if something went wrong
+     */
+    private <T> T copyTwoPhase(T original, TwoPhaseObjectCopier<T> copier) throws Exception {
+        T clone = copier.allocate(original);
+        if (clone == null) {
+            throw nullClone(original);
+        }
+        clones.put(original, clone);
+        thenCopy(copier, original, clone);
+        return clone;
+    }
+
+    /**
+     * Copying with an arbitrary copier, which must register the clone exactly once.
+     *
+     * @param <T> object type
+     * @param original original object
+     * @param copier object copier
+     * @return copy of the original object
+     * @throws Exception if something went wrong
+     */
+    private <T> T copyRegistered(T original, ObjectCopier<T> copier) throws Exception {
+        RegistrationContext registration = new RegistrationContext(this, clones, original);
+        T clone = copier.copy(original, registration);
         if (clone == null) {
-            throw new ClonerException(String.format("Non-null clone expected for '%s'.", original));
+            throw nullClone(original);
         }
         registration.check(clone);
         return clone;
     }
 
+    /**
+     * Copying of the object which is never shared. The object is not looked up and not registered in the table
+     * of the clones.
+     *
+     * @param <T> object type
+     * @param original original object
+     * @param copier object copier
+     * @return copy of the original object
+     * @throws Exception if something went wrong
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T copyUnshared(T original, ObjectCopier<T> copier) throws Exception {
+        T clone = (T) predefined.get(original);
+        if (clone != null) {
+            return clone;
+        }
+        if (unsharedVisited != null) {
+            checkUnshared(original, unsharedVisited);
+        }
+        clone = copier.copy(original, unsharedContext);
+        if (clone == null) {
+            throw nullClone(original);
+        }
+        return clone;
+    }
+
+    /**
+     * Returns exception for the copier which has returned {@code null}.
+     *
+     * @param original original object
+     * @return exception
+     */
+    private static ClonerException nullClone(Object original) {
+        return new ClonerException(String.format("Non-null clone expected for '%s'.", original));
+    }
+
+    /**
+     * Checks that the object declared as unshared is visited for the first time.
+     *
+     * @param original original object
+     * @param visited unshared objects visited so far
+     */
+    protected void checkUnshared(Object original, CloneTable visited) {
+        if (visited.claim(original) != null) {
+            throw new ClonerException(String.format("Object '%s' of type %s is declared as unshared, " +
+                "but it is referenced more than once.", original, original.getClass().getName()));
+        }
+        visited.put(original, original);
+    }
+
     /**
      * Completes all the delayed tasks.
      *
@@ -119,4 +278,45 @@ public abstract class AbstractCopyContext implements CopyContext {
      */
     public abstract void complete() throws Throwable;
 
+    /**
+     * Prepares the context for the next copy process. The cloner may keep the context and reuse it
+     * for the next call, if this method returns {@code true}. Subclasses which support reuse must
+     * reset all the state of the previous copy process, including the state left by a failed copying.
+     *
+     * @return {@code true} if the context can be reused, {@code false} otherwise
+     */
+    public boolean reset() {
+        return false;
+    }
+
+    /**
+     * Hints the expected size of the object graph, so the context can allocate its buffers once instead of growing them.
+     *
+     * @param objects expected number of the copied objects
+     * @param tasks expected maximal number of the delayed tasks
+     */
+    public void presize(int objects, int tasks) {
+        clones.ensureCapacity(objects);
+    }
+
+    /**
+     * Returns the number of the objects copied by the context since the last {@link #reset()}, not including
+     * the objects which are never shared.
+     *
+     * @return number of the copied objects
+     */
+    public int getCopiedCount() {
+        return clones.size();
+    }
+
+    /**
+     * Removes all the clones of the previous copy process.
+     */
+    protected void clearClones() {
+        clones.clear();
+        if (unsharedVisited != null) {
+            unsharedVisited.clear();
+        }
+    }
+
 }
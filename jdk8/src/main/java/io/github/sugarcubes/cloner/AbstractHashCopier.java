@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * Base copier for the hash-based and the sorted concurrent collections. The clone is allocated with the {@code clone()}
+ * method or the copy constructor of the collection, which keeps the capacity, the load factor and the iteration order
+ * of the original. The concurrent collections are read through their public API, so, the clone is a weakly consistent
+ * snapshot, even if the original is modified concurrently. Then the keys are copied, and, if
+ * all the keys come back unchanged (i.e. they are immutable or predefined), the hash table of the clone is valid as is,
+ * and only the values must be copied. Otherwise, the clone is overwritten by the field-by-field copier of the type.
+ * The field-by-field copier reads the original, except for the concurrent collections: their internal structure
+ * may be modified by other threads, so, the private snapshot, i.e. the clone itself, is copied field by field instead.
+ *
+ * @author Maxim Butov
+ */
+public abstract class AbstractHashCopier<T> extends TwoPhaseObjectCopier<T> {
+
+    /**
+     * Shallow copy function, usually, {@code clone()} method or the copy constructor of the collection.
+     */
+    private final UnaryOperator<T> shallowCopy;
+
+    /**
+     * Copier which is used when any of the keys is changed by copying.
+     */
+    private final TwoPhaseObjectCopier<T> fallback;
+
+    /**
+     * Creates copier.
+     *
+     * @param shallowCopy shallow copy function
+     * @param fallback copier which is used when any of the keys is changed by copying
+     */
+    protected AbstractHashCopier(UnaryOperator<T> shallowCopy, TwoPhaseObjectCopier<T> fallback) {
+        this.shallowCopy = shallowCopy;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public T allocate(T original) throws Exception {
+        return shallowCopy.apply(original);
+    }
+
+    /**
+     * Copies the keys of the clone and invokes the final task if all the copies are the same objects as the keys,
+     * otherwise, copies the original with {@link #fallback} copier.
+     *
+     * @param keys keys of the clone
+     * @param original original object
+     * @param clone clone
+     * @param context copying context
+     * @param then final task, nullable
+     * @throws Exception if something went wrong
+     */
+    protected void copyKeys(Collection<Object> keys, T original, T clone, CopyContext context, Callable<?> then)
+        throws Exception {
+        if (keys.size() <= context.getSplitThreshold()) {
+            for (Object key : keys) {
+                if (context.copy(key) != key) {
+                    fallback.deepCopy(fallbackSource(original, clone), clone, context);
+                    return;
+                }
+            }
+            if (then != null) {
+                then.call();
+            }
+            return;
+        }
+        Object[] array = keys.toArray();
+        Object[] copies = new Object[array.length];
+        copyElements(array, copies, context, () -> {
+            for (int k = 0; k < array.length; k++) {
+                if (copies[k] != array[k]) {
+                    fallback.deepCopy(fallbackSource(original, clone), clone, context);
+                    return null;
+                }
+            }
+            return then != null ? then.call() : null;
+        });
+    }
+
+    /**
+     * Returns the object which is copied with {@link #fallback} copier.
+     *
+     * @param <T> object type
+     * @param original original object
+     * @param clone clone, i.e. the shallow copy of the original
+     * @return the clone for the concurrent collections, the original otherwise
+     */
+    private static <T> T fallbackSource(T original, T clone) {
+        return original instanceof ConcurrentMap || original instanceof ConcurrentSkipListSet ? clone : original;
+    }
+
+}
@@ -15,24 +15,43 @@
  */
 package io.github.sugarcubes.cloner;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Context which is used by single thread.
+ * Context which is used by single thread. The context can be reused, after {@link #reset()} it keeps
+ * its buffers, unless they have grown too big.
  *
  * @author Maxim Butov
  */
 public abstract class AbstractSingleThreadCopyContext extends AbstractCopyContext {
 
+    /**
+     * Creates context with specified copier provider and predefined cloned objects.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     */
+    public AbstractSingleThreadCopyContext(CopierProvider copierProvider, CloneTable predefined) {
+        super(copierProvider, predefined, IdentityCloneTable::new);
+    }
+
     /**
      * Creates context with specified copier provider and predefined cloned objects.
      *
      * @param copierProvider copier provider
      * @param clones predefined cloned objects
+     * @deprecated use {@link #AbstractSingleThreadCopyContext(CopierProvider, CloneTable)}
+     * with {@link #predefinedClones(Map)}, which builds the table once
      */
+    @Deprecated
     public AbstractSingleThreadCopyContext(CopierProvider copierProvider, Map<Object, Object> clones) {
-        super(copierProvider, HashMap::new, clones);
+        this(copierProvider, predefinedClones(clones));
+    }
+
+    @Override
+    public boolean reset() {
+        clearClones();
+        return true;
     }
 
 }
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cloner which chooses the mode of every call on the basis of the statistics of the previous calls with
+ * the root objects of the same type. The statistics are cheap and approximate, they are updated without
+ * synchronization: the moving average of the number of the copied objects, the maximal recursion depth of the last
+ * call in hybrid mode and the moving average of the high-water mark of the task queue.
+ * <ul>
+ *     <li>The graphs with the expected number of objects not less than the parallel threshold are copied
+ *     in {@link CloningMode#PARALLEL} mode.</li>
+ *     <li>The graphs which have reached the recursion depth limit are copied in {@link CloningMode#SEQUENTIAL}
+ *     mode. Every 64th call is made in {@link CloningMode#HYBRID} mode anyway, in order
+ *     to observe the recursion depth again, so, the type returns to hybrid mode when its graphs become shallow.</li>
+ *     <li>The other graphs, including the graphs of the new root types, are copied in {@link CloningMode#HYBRID}
+ *     mode, i.e. with recursion which falls back to the queue if the graph is deeper than expected.</li>
+ * </ul>
+ * The identity table and the task queue of the single-thread contexts are allocated for the expected size
+ * of the graph. The statistics are kept per root object, so, a batch of {@link #cloneAll(Object[])} is expected
+ * to be as many times larger as there are objects in it. The decisions can be checked with {@link #getDecision(Class)}.
+ *
+ * @author Maxim Butov
+ */
+public final class AdaptiveCloner implements Cloner {
+
+    /**
+     * Default expected number of the objects in the graph from which the graph is copied in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 100_000;
+
+    /**
+     * Maximal number of the objects or tasks the buffers of the context are allocated for in advance.
+     */
+    private static final int MAX_PRESIZE = 1 << 16;
+
+    /**
+     * Inverse weight of the last call in the moving averages.
+     */
+    private static final int AVERAGE_WEIGHT = 4;
+
+    /**
+     * Interval of the calls in hybrid mode for the types which are copied in sequential mode.
+     */
+    private static final int RESAMPLE_INTERVAL = 64;
+
+    /**
+     * Pool of the contexts for hybrid mode.
+     */
+    private final ContextPool hybrid;
+
+    /**
+     * Pool of the contexts for sequential mode.
+     */
+    private final ContextPool sequential;
+
+    /**
+     * Pool of the contexts for parallel mode.
+     */
+    private final ContextPool parallel;
+
+    /**
+     * Recursion depth limit of the hybrid contexts.
+     */
+    private final int recursionDepth;
+
+    /**
+     * Expected number of the objects in the graph from which the graph is copied in parallel.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * Statistics per root type.
+     */
+    private final ClassValueCache<Statistics> statistics = new ClassValueCache<>(type -> new Statistics());
+
+    /**
+     * Statistics of the batches of the objects of different types.
+     */
+    private final Statistics mixed = new Statistics();
+
+    /**
+     * Configuration of the cloner, nullable.
+     */
+    private final ReflectionClonerBuilder configuration;
+
+    /**
+     * Creates cloner.
+     *
+     * @param hybrid supplier of the contexts for hybrid mode
+     * @param sequential supplier of the contexts for sequential mode
+     * @param parallel supplier of the contexts for parallel mode
+     * @param recursionDepth recursion depth limit of the hybrid contexts
+     * @param parallelThreshold expected number of the objects in the graph from which the graph is copied in parallel
+     */
+    public AdaptiveCloner(Supplier<? extends HybridCopyContext> hybrid, Supplier<? extends SequentialCopyContext> sequential,
+        Supplier<? extends AbstractCopyContext> parallel, int recursionDepth, int parallelThreshold) {
+        this(hybrid, sequential, parallel, recursionDepth, parallelThreshold, null);
+    }
+
+    /**
+     * Creates cloner with configuration.
+     *
+     * @param hybrid supplier of the contexts for hybrid mode
+     * @param sequential supplier of the contexts for sequential mode
+     * @param parallel supplier of the contexts for parallel mode
+     * @param recursionDepth recursion depth limit of the hybrid contexts
+     * @param parallelThreshold expected number of the objects in the graph from which the graph is copied in parallel
+     * @param configuration configuration of the cloner, see {@link #toBuilder()}, nullable
+     */
+    AdaptiveCloner(Supplier<? extends HybridCopyContext> hybrid, Supplier<? extends SequentialCopyContext> sequential,
+        Supplier<? extends AbstractCopyContext> parallel, int recursionDepth, int parallelThreshold,
+        ReflectionClonerBuilder configuration) {
+        this.hybrid = new ContextPool(hybrid);
+        this.sequential = new ContextPool(sequential);
+        this.parallel = new ContextPool(parallel);
+        this.recursionDepth = recursionDepth;
+        this.parallelThreshold = parallelThreshold;
+        this.configuration = configuration;
+    }
+
+    @Override
+    public <T> T clone(T object) {
+        if (object == null) {
+            return null;
+        }
+        return copy(statistics.get(object.getClass()), 1, context -> {
+            T clone = context.copy(object);
+            context.complete();
+            return clone;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> cloneAll(Collection<? extends T> objects) {
+        Object[] originals = objects.toArray();
+        return new ArrayList<>((List<T>) Arrays.asList(cloneAll(originals, new Object[originals.length])));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] cloneAll(T... objects) {
+        return cloneAll(objects, Arrays.copyOf(objects, objects.length));
+    }
+
+    /**
+     * Copies the originals into the array of the clones in a single context. The statistics of the batch are
+     * the statistics of the type of the originals, if all of them are of the same type.
+     *
+     * @param <T> object type
+     * @param originals original objects
+     * @param clones array of the clones
+     * @return array of the clones
+     */
+    private <T> T[] cloneAll(T[] originals, T[] clones) {
+        return copy(getStatistics(originals), originals.length, context -> ContextPool.copyAll(context, originals, clones));
+    }
+
+    /**
+     * Runs the copy process in the mode chosen on the basis of the statistics and updates the statistics.
+     *
+     * @param <T> result type
+     * @param statistics statistics of the root type
+     * @param roots number of the root objects
+     * @param process copy process
+     * @return result
+     */
+    private <T> T copy(Statistics statistics, int roots, ContextPool.Process<T> process) {
+        CloningMode mode = statistics.getMode(roots, recursionDepth, parallelThreshold);
+        return getContexts(mode).run(context -> {
+            statistics.presize(context, roots);
+            T result = process.run(context);
+            statistics.update(context, roots);
+            return result;
+        });
+    }
+
+    /**
+     * Returns the statistics of the batch: the statistics of the type of the originals if all of them are of the same
+     * type, or the common statistics of the mixed batches otherwise.
+     *
+     * @param originals original objects
+     * @return statistics
+     */
+    private Statistics getStatistics(Object[] originals) {
+        Class<?> type = null;
+        for (Object original : originals) {
+            if (original != null) {
+                if (type == null) {
+                    type = original.getClass();
+                }
+                else if (original.getClass() != type) {
+                    return mixed;
+                }
+            }
+        }
+        return type != null ? statistics.get(type) : mixed;
+    }
+
+    /**
+     * Returns the pool of the contexts for the mode.
+     *
+     * @param mode cloning mode
+     * @return pool of the contexts
+     */
+    private ContextPool getContexts(CloningMode mode) {
+        switch (mode) {
+            case PARALLEL:
+                return parallel;
+            case SEQUENTIAL:
+                return sequential;
+            default:
+                return hybrid;
+        }
+    }
+
+    /**
+     * Returns the decision for the next call with the root object of the specified type.
+     *
+     * @param type type of the root object
+     * @return decision
+     */
+    public Decision getDecision(Class<?> type) {
+        Statistics statistics = this.statistics.get(type);
+        return new Decision(statistics.getMode(1, recursionDepth, parallelThreshold), statistics.samples, statistics.objects,
+            statistics.maxDepth, statistics.queueSize);
+    }
+
+    @Override
+    public ReflectionClonerBuilder toBuilder() {
+        return configuration != null ? new ReflectionClonerBuilder(configuration) : Cloner.super.toBuilder();
+    }
+
+    /**
+     * Mutable statistics of the root type.
+     */
+    private static final class Statistics {
+
+        /**
+         * Number of the calls.
+         */
+        volatile long samples;
+
+        /**
+         * Moving average of the number of the copied objects per root object.
+         */
+        volatile int objects;
+
+        /**
+         * Maximal recursion depth of the last call in hybrid mode.
+         */
+        volatile int maxDepth;
+
+        /**
+         * Moving average of the high-water mark of the task queue per root object.
+         */
+        volatile int queueSize;
+
+        /**
+         * Returns the mode for the next call.
+         *
+         * @param roots number of the root objects
+         * @param recursionDepth recursion depth limit
+         * @param parallelThreshold expected number of the objects from which the graph is copied in parallel
+         * @return cloning mode
+         */
+        CloningMode getMode(int roots, int recursionDepth, int parallelThreshold) {
+            if (samples == 0) {
+                return CloningMode.HYBRID;
+            }
+            if ((long) objects * roots >= parallelThreshold) {
+                return CloningMode.PARALLEL;
+            }
+            return maxDepth >= recursionDepth && samples % RESAMPLE_INTERVAL != 0 ? CloningMode.SEQUENTIAL : CloningMode.HYBRID;
+        }
+
+        /**
+         * Allocates the buffers of the context for the expected size of the graph.
+         *
+         * @param context context
+         * @param roots number of the root objects
+         */
+        void presize(AbstractCopyContext context, int roots) {
+            if (samples != 0) {
+                context.presize((int) Math.min((long) objects * roots, MAX_PRESIZE), (int) Math.min((long) queueSize * roots, MAX_PRESIZE));
+            }
+        }
+
+        /**
+         * Updates the statistics after the successful call.
+         *
+         * @param context context of the call
+         * @param roots number of the root objects
+         */
+        void update(AbstractCopyContext context, int roots) {
+            int depth = maxDepth;
+            int queue = 0;
+            if (context instanceof HybridCopyContext) {
+                depth = ((HybridCopyContext) context).getMaxDepth();
+                queue = ((HybridCopyContext) context).getMaxQueueSize();
+            }
+            else if (context instanceof SequentialCopyContext) {
+                queue = ((SequentialCopyContext) context).getMaxQueueSize();
+            }
+            maxDepth = depth;
+            int count = Math.max(roots, 1);
+            objects = average(objects, context.getCopiedCount() / count);
+            queueSize = average(queueSize, queue / count);
+            samples++;
+        }
+
+        /**
+         * Returns the moving average with the new value.
+         *
+         * @param average current average
+         * @param value new value
+         * @return new average
+         */
+        private int average(int average, int value) {
+            return samples == 0 ? value : (int) (average + ((long) value - average) / AVERAGE_WEIGHT);
+        }
+
+    }
+
+    /**
+     * Decision of the adaptive cloner for the root type, with the statistics it is based on.
+     */
+    public static final class Decision {
+
+        /**
+         * Cloning mode.
+         */
+        private final CloningMode mode;
+
+        /**
+         * Number of the calls the statistics are collected from.
+         */
+        private final long samples;
+
+        /**
+         * Expected number of the copied objects.
+         */
+        private final int objects;
+
+        /**
+         * Maximal recursion depth of the last call in hybrid mode.
+         */
+        private final int maxDepth;
+
+        /**
+         * Expected high-water mark of the task queue.
+         */
+        private final int queueSize;
+
+        /**
+         * Creates decision.
+         *
+         * @param mode cloning mode
+         * @param samples number of the calls
+         * @param objects expected number of the copied objects
+         * @param maxDepth maximal recursion depth of the last call in hybrid mode
+         * @param queueSize expected high-water mark of the task queue
+         */
+        Decision(CloningMode mode, long samples, int objects, int maxDepth, int queueSize) {
+            this.mode = mode;
+            this.samples = samples;
+            this.objects = objects;
+            this.maxDepth = maxDepth;
+            this.queueSize = queueSize;
+        }
+
+        /**
+         * Returns cloning mode: {@link CloningMode#HYBRID}, {@link CloningMode#SEQUENTIAL} or {@link CloningMode#PARALLEL}.
+         *
+         * @return cloning mode
+         */
+        public CloningMode getMode() {
+            return mode;
+        }
+
+        /**
+         * Returns the number of the calls the statistics are collected from.
+         *
+         * @return number of the calls
+         */
+        public long getSamples() {
+            return samples;
+        }
+
+        /**
+         * Returns the expected number of the copied objects (moving average).
+         *
+         * @return expected number of the objects
+         */
+        public int getObjects() {
+            return objects;
+        }
+
+        /**
+         * Returns the maximal recursion depth of the last call in hybrid mode. The depth is observed in hybrid mode only.
+         *
+         * @return maximal recursion depth
+         */
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * Returns the expected high-water mark of the task queue (moving average).
+         *
+         * @return expected queue size
+         */
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (samples: %d, objects: %d, max depth: %d, queue size: %d)",
+                mode, samples, objects, maxDepth, queueSize);
+        }
+
+    }
+
+}
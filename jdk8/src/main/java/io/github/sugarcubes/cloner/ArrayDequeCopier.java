@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Copier for {@link ArrayDeque}. The clone is allocated with {@link ArrayDeque#clone()}, which copies the backing array
+ * with a single array clone. If all the elements are not changed by copying, the clone is ready. Otherwise, the elements
+ * starting from the first changed one are replaced by rotating the deque: every element is removed from the head and
+ * its copy is added to the tail. The capacity of the deque is enough for that, so, the backing array is never
+ * reallocated.
+ *
+ * @author Maxim Butov
+ */
+public class ArrayDequeCopier extends TwoPhaseObjectCopier<ArrayDeque<Object>> {
+
+    @Override
+    public ArrayDeque<Object> allocate(ArrayDeque<Object> original) throws Exception {
+        return original.clone();
+    }
+
+    @Override
+    public void deepCopy(ArrayDeque<Object> original, ArrayDeque<Object> clone, CopyContext context) throws Exception {
+        int size = clone.size();
+        if (size > context.getSplitThreshold()) {
+            Object[] array = clone.toArray();
+            copyElements(array, array, context, () -> {
+                clone.clear();
+                return clone.addAll(Arrays.asList(array));
+            });
+            return;
+        }
+        int index = 0;
+        Object changed = null;
+        for (Object element : clone) {
+            changed = context.copy(element);
+            if (changed != element) {
+                break;
+            }
+            index++;
+        }
+        if (index == size) {
+            return;
+        }
+        for (int k = 0; k < index; k++) {
+            clone.addLast(clone.pollFirst());
+        }
+        clone.pollFirst();
+        clone.addLast(changed);
+        for (int k = index + 1; k < size; k++) {
+            clone.addLast(context.copy(clone.pollFirst()));
+        }
+    }
+
+}
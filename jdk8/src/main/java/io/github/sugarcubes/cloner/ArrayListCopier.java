@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copier for the array-backed lists, i.e. {@link java.util.ArrayList}, {@link java.util.Vector} and {@link java.util.Stack}.
+ * The clone is allocated with the {@code clone()} method of the list, which copies the backing array with a single
+ * {@link java.util.Arrays#copyOf(Object[], int)} call, so, the clone has the backing array of the right size, and
+ * the elements are already in place. Then every element is copied, and only the changed ones are replaced with
+ * {@link List#set(int, Object)}. There are neither temporary arrays nor the second pass over the elements.
+ * If the list is larger than {@link CopyContext#getSplitThreshold()}, the ranges of the list are copied by separate
+ * tasks, which never touch the same index.
+ *
+ * @author Maxim Butov
+ */
+public class ArrayListCopier<T extends List<Object>> extends TwoPhaseObjectCopier<T> {
+
+    /**
+     * Shallow copy function, {@code clone()} method of the list.
+     */
+    private final UnaryOperator<T> shallowCopy;
+
+    /**
+     * Creates copier.
+     *
+     * @param shallowCopy shallow copy function
+     */
+    public ArrayListCopier(UnaryOperator<T> shallowCopy) {
+        this.shallowCopy = shallowCopy;
+    }
+
+    @Override
+    public T allocate(T original) throws Exception {
+        return shallowCopy.apply(original);
+    }
+
+    @Override
+    public void deepCopy(T original, T clone, CopyContext context) throws Exception {
+        int size = clone.size();
+        int threshold = context.getSplitThreshold();
+        if (size <= threshold) {
+            copyRange(clone, context, 0, size);
+            return;
+        }
+        for (int start = 0; start < size; start += threshold) {
+            int from = start;
+            int to = Math.min(size, start + threshold);
+            context.thenInvoke(() -> {
+                copyRange(clone, context, from, to);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Replaces the elements of the range of the list with their copies.
+     *
+     * @param clone clone, which contains the original elements
+     * @param context copying context
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     * @throws Exception if something went wrong
+     */
+    private static void copyRange(List<Object> clone, CopyContext context, int from, int to) throws Exception {
+        for (int k = from; k < to; k++) {
+            Object element = clone.get(k);
+            Object copy = context.copy(element);
+            if (copy != element) {
+                clone.set(k, copy);
+            }
+        }
+    }
+
+}
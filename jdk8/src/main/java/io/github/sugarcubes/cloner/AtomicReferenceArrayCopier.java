@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Copier for {@link AtomicReferenceArray}. The elements are read one by one with the volatile semantics, so, the clone
+ * is a weakly consistent snapshot, even if the original is modified concurrently.
+ *
+ * @author Maxim Butov
+ */
+public class AtomicReferenceArrayCopier extends TwoPhaseObjectCopier<AtomicReferenceArray<Object>> {
+
+    @Override
+    public AtomicReferenceArray<Object> allocate(AtomicReferenceArray<Object> original) throws Exception {
+        return new AtomicReferenceArray<>(original.length());
+    }
+
+    @Override
+    public void deepCopy(AtomicReferenceArray<Object> original, AtomicReferenceArray<Object> clone, CopyContext context)
+        throws Exception {
+        Object[] elements = new Object[clone.length()];
+        for (int k = 0; k < elements.length; k++) {
+            elements[k] = original.get(k);
+        }
+        copyElements(elements, elements, context, () -> {
+            for (int k = 0; k < elements.length; k++) {
+                clone.lazySet(k, elements[k]);
+            }
+            return null;
+        });
+    }
+
+}
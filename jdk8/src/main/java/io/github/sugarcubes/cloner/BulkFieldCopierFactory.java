@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field copier factory which copies the object body first and then patches the reference fields.
+ * Primitive fields which are adjacent in the object layout are merged into spans, and each span is copied with
+ * the widest aligned memory accesses (8, 4, 2 or 1 bytes) of {@link UnsafeBridge}. So, a class with many primitive
+ * fields is copied with a few word operations instead of a get/put pair per field.
+ * Reference fields are never copied in bulk (this would bypass the GC barriers), they are copied one by one
+ * with the copiers of {@link UnsafeFieldCopierFactory}.
+ * The fields with {@link CopyAction#SKIP} action are not a part of any span, so they keep their default values.
+ *
+ * @author Maxim Butov
+ */
+public final class BulkFieldCopierFactory implements FieldCopierFactory {
+
+    /**
+     * Size of the widest memory access.
+     */
+    private static final int WORD_SIZE = Long.BYTES;
+
+    /**
+     * {@link UnsafeBridge} instance.
+     */
+    private final UnsafeBridge unsafe = JdkConfigurationHolder.CONFIGURATION.getUnsafe();
+
+    /**
+     * Factory of the single field copiers.
+     */
+    private final FieldCopierFactory fieldCopierFactory = new UnsafeFieldCopierFactory();
+
+    @Override
+    public FieldCopier getFieldCopier(Field field, CopyAction action) {
+        return fieldCopierFactory.getFieldCopier(field, action);
+    }
+
+    @Override
+    public FieldCopier getReferenceFieldCopier(Field field, ObjectCopier<Object> valueCopier) {
+        return fieldCopierFactory.getReferenceFieldCopier(field, valueCopier);
+    }
+
+    @Override
+    public FieldCopier getFieldCopier(Map<Field, CopyAction> fields) {
+        List<Field> primitives = new ArrayList<>();
+        Map<Field, CopyAction> references = new LinkedHashMap<>();
+        fields.forEach((field, action) -> {
+            if (action == CopyAction.SKIP) {
+                return;
+            }
+            if (field.getType().isPrimitive()) {
+                Checks.illegalArg(action == CopyAction.NULL, "Cannot apply action NULL for primitive field %s.", field);
+                primitives.add(field);
+            }
+            else {
+                references.put(field, action);
+            }
+        });
+        FieldCopier bodyCopier = getBodyCopier(primitives);
+        FieldCopier referencesCopier = fieldCopierFactory.getFieldCopier(references);
+        if (bodyCopier == FieldCopier.NOOP) {
+            return referencesCopier;
+        }
+        if (referencesCopier == FieldCopier.NOOP) {
+            return bodyCopier;
+        }
+        return (original, clone, context) -> {
+            bodyCopier.copy(original, clone, context);
+            referencesCopier.copy(original, clone, context);
+        };
+    }
+
+    /**
+     * Returns copier of the primitive fields, which copies the memory spans occupied by the fields.
+     *
+     * @param primitives primitive fields
+     * @return field copier
+     */
+    private FieldCopier getBodyCopier(List<Field> primitives) {
+        if (primitives.isEmpty()) {
+            return FieldCopier.NOOP;
+        }
+        long[][] fields = primitives.stream()
+            .map(field -> new long[] {unsafe.objectFieldOffset(field), sizeOf(field.getType())})
+            .sorted(Comparator.comparingLong(field -> field[0]))
+            .toArray(long[][]::new);
+        List<long[]> chunks = new ArrayList<>();
+        long start = fields[0][0];
+        long end = start;
+        for (long[] field : fields) {
+            if (field[0] != end) {
+                addChunks(chunks, start, end);
+                start = field[0];
+            }
+            end = field[0] + field[1];
+        }
+        addChunks(chunks, start, end);
+        long[] offsets = chunks.stream().mapToLong(chunk -> chunk[0]).toArray();
+        int[] sizes = chunks.stream().mapToInt(chunk -> (int) chunk[1]).toArray();
+        return (original, clone, context) -> copyChunks(original, clone, offsets, sizes);
+    }
+
+    /**
+     * Splits the memory span into the aligned chunks of 8, 4, 2 or 1 bytes.
+     *
+     * @param chunks list of chunks (offset, size) to add to
+     * @param start span start offset
+     * @param end span end offset
+     */
+    private static void addChunks(List<long[]> chunks, long start, long end) {
+        long offset = start;
+        while (offset < end) {
+            int size = WORD_SIZE;
+            while (offset % size != 0 || offset + size > end) {
+                size >>= 1;
+            }
+            chunks.add(new long[] {offset, size});
+            offset += size;
+        }
+    }
+
+    /**
+     * Copies the memory chunks from the original object to the clone.
+     *
+     * @param original original object
+     * @param clone clone
+     * @param offsets offsets of the chunks
+     * @param sizes sizes of the chunks
+     */
+    private void copyChunks(Object original, Object clone, long[] offsets, int[] sizes) {
+        for (int index = 0; index < offsets.length; index++) {
+            long offset = offsets[index];
+            switch (sizes[index]) {
+                case Long.BYTES:
+                    unsafe.putLong(clone, offset, unsafe.getLong(original, offset));
+                    break;
+                case Integer.BYTES:
+                    unsafe.putInt(clone, offset, unsafe.getInt(original, offset));
+                    break;
+                case Short.BYTES:
+                    unsafe.putShort(clone, offset, unsafe.getShort(original, offset));
+                    break;
+                default:
+                    unsafe.putByte(clone, offset, unsafe.getByte(original, offset));
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns size of the primitive type in bytes.
+     *
+     * @param type primitive type
+     * @return size in bytes
+     */
+    private static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return Long.BYTES;
+        }
+        if (type == int.class || type == float.class) {
+            return Integer.BYTES;
+        }
+        if (type == short.class || type == char.class) {
+            return Short.BYTES;
+        }
+        return Byte.BYTES;
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+/**
+ * Field copier factory which generates a hidden class per type. All the fields of the type, including the fields
+ * of the super types, are copied by the single straight-line method of the generated class, which gets and sets
+ * field values with {@link UnsafeBridge}. Unlike the loop over the single field copiers, such a method has no megamorphic
+ * call sites, thus, it can be inlined and optimized by JIT compiler.
+ *
+ * @author Maxim Butov
+ */
+public final class BytecodeFieldCopierFactory implements FieldCopierFactory {
+
+    /**
+     * {@link UnsafeBridge} instance. Used by the generated classes.
+     */
+    static final UnsafeBridge UNSAFE = JdkConfigurationHolder.CONFIGURATION.getUnsafe();
+
+    /**
+     * Maximal number of fields in the generated copier. The size of the method bytecode is limited to 64K.
+     */
+    private static final int MAX_FIELDS = 2000;
+
+    /**
+     * Factory of the single field copiers.
+     */
+    private final FieldCopierFactory fieldCopierFactory = new UnsafeFieldCopierFactory();
+
+    @Override
+    public FieldCopier getFieldCopier(Field field, CopyAction action) {
+        return fieldCopierFactory.getFieldCopier(field, action);
+    }
+
+    @Override
+    public FieldCopier getReferenceFieldCopier(Field field, ObjectCopier<Object> valueCopier) {
+        return fieldCopierFactory.getReferenceFieldCopier(field, valueCopier);
+    }
+
+    @Override
+    public FieldCopier getFieldCopier(Map<Field, CopyAction> fields) {
+        if (fields.isEmpty()) {
+            return FieldCopier.NOOP;
+        }
+        if (fields.size() > MAX_FIELDS) {
+            return FieldCopierFactory.super.getFieldCopier(fields);
+        }
+        fields.forEach((field, action) -> Checks.illegalArg(action == CopyAction.NULL && field.getType().isPrimitive(),
+            "Cannot apply action NULL for primitive field %s.", field));
+        byte[] bytecode = FieldCopierGenerator.generate(fields, UNSAFE::objectFieldOffset);
+        Class<?> copierClass = JdkConfigurationHolder.CONFIGURATION.defineHiddenClass(bytecode);
+        return (FieldCopier) ReflectionUtils.newInstance(copierClass);
+    }
+
+}
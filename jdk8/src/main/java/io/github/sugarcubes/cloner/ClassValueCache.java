@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Lazy cache of the values per class with mapping function, backed by {@link ClassValue}. The values are stored
+ * in the classes themselves, so, the lookup is lock-free, and the cache does not prevent the classes and their class loaders
+ * from being collected. The values must not reference the cache, otherwise the cache would be kept by the classes.
+ * The value of a class is computed once. The mapping function may call {@link #get(Class)} for the other classes,
+ * if such calls do not form cycles, e.g. for the super class.
+ * <p>
+ * The cache can be bounded: if the number of the computed values exceeds the bound, the oldest values are evicted and
+ * will be computed again if needed. The initial entries and the values of the classes loaded by the bootstrap class loader
+ * are never evicted.
+ *
+ * @param <V> value type
+ * @author Maxim Butov
+ */
+public class ClassValueCache<V> {
+
+    /**
+     * Initial entries, never evicted.
+     */
+    private final Map<Class<?>, V> initialMap;
+
+    /**
+     * Class-value mapping function.
+     */
+    private final Function<Class<?>, V> mappingFunction;
+
+    /**
+     * Maximal number of the evictable values.
+     */
+    private final int maxSize;
+
+    /**
+     * Holders of the values. A holder is created on the first access to the class, the value is computed on the first
+     * call of {@link #get(Class)}.
+     */
+    private final ClassValue<Holder<V>> holders = new ClassValue<Holder<V>>() {
+        @Override
+        protected Holder<V> computeValue(Class<?> type) {
+            return new Holder<>(initialMap.get(type));
+        }
+    };
+
+    /**
+     * Classes of the evictable values in the order of computing. The references are weak, so, the classes can be collected.
+     */
+    private final Queue<WeakReference<Class<?>>> evictable = new ArrayDeque<>();
+
+    /**
+     * Creates unbounded cache.
+     *
+     * @param mappingFunction class-value mapping function
+     */
+    public ClassValueCache(Function<Class<?>, V> mappingFunction) {
+        this(Collections.emptyMap(), mappingFunction, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates cache.
+     *
+     * @param initialMap initial cache entries
+     * @param mappingFunction class-value mapping function
+     * @param maxSize maximal number of the computed values, except for the classes of the bootstrap class loader
+     */
+    public ClassValueCache(Map<Class<?>, ? extends V> initialMap, Function<Class<?>, V> mappingFunction, int maxSize) {
+        Checks.illegalArg(maxSize <= 0, "Cache size must be positive.");
+        this.initialMap = Collections.unmodifiableMap(new HashMap<>(initialMap));
+        this.mappingFunction = mappingFunction;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns value for the class, does not compute if absent.
+     *
+     * @param type class
+     * @return value or {@code null}
+     */
+    public V getIfPresent(Class<?> type) {
+        return holders.get(type).value;
+    }
+
+    /**
+     * Returns value for the class, computes if necessary.
+     *
+     * @param type class
+     * @return value
+     */
+    public V get(Class<?> type) {
+        Holder<V> holder = holders.get(type);
+        V value = holder.value;
+        return value != null ? value : compute(type, holder);
+    }
+
+    /**
+     * Computes the value for the class.
+     *
+     * @param type class
+     * @param holder holder of the value
+     * @return value
+     */
+    private V compute(Class<?> type, Holder<V> holder) {
+        V value;
+        synchronized (holder) {
+            value = holder.value;
+            if (value != null) {
+                return value;
+            }
+            value = mappingFunction.apply(type);
+            holder.value = value;
+        }
+        if (maxSize != Integer.MAX_VALUE && type.getClassLoader() != null) {
+            evict(type);
+        }
+        return value;
+    }
+
+    /**
+     * Registers the class of the computed value and evicts the oldest values if the cache is full.
+     *
+     * @param type class of the computed value
+     */
+    private void evict(Class<?> type) {
+        synchronized (evictable) {
+            evictable.add(new WeakReference<>(type));
+            while (evictable.size() > maxSize) {
+                Class<?> oldest = evictable.remove().get();
+                if (oldest != null) {
+                    holders.remove(oldest);
+                }
+            }
+        }
+    }
+
+    /**
+     * Holder of the value.
+     *
+     * @param <V> value type
+     */
+    private static final class Holder<V> {
+
+        /**
+         * Value, {@code null} until computed.
+         */
+        volatile V value;
+
+        /**
+         * Creates holder.
+         *
+         * @param value initial value or {@code null}
+         */
+        Holder(V value) {
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+/**
+ * Table of the clones. Maps the original objects to their clones by identity.
+ *
+ * @author Maxim Butov
+ */
+public interface CloneTable {
+
+    /**
+     * Returns clone of the original object.
+     *
+     * @param original original object
+     * @return clone or {@code null} if the object is not cloned yet
+     */
+    Object get(Object original);
+
+    /**
+     * Puts (original, clone) into the table.
+     *
+     * @param original original object
+     * @param clone clone
+     */
+    void put(Object original, Object clone);
+
+    /**
+     * Returns clone of the original object or claims the original for copying by the current thread.
+     * If the original is claimed, the caller must either {@link #put(Object, Object)} the clone
+     * or {@link #release(Object)} the original.
+     * Thread-safe implementations wait until the clone claimed by another thread is put into the table.
+     *
+     * @param original original object
+     * @return clone or {@code null} if the original is claimed by the current thread
+     */
+    default Object claim(Object original) {
+        return get(original);
+    }
+
+    /**
+     * Releases the original claimed with {@link #claim(Object)} if copying has failed.
+     *
+     * @param original original object
+     */
+    default void release(Object original) {
+    }
+
+    /**
+     * Returns the number of the originals in the table, including the claimed ones.
+     * The result of the concurrent implementations is exact only if the table is not modified at the moment.
+     *
+     * @return number of the originals
+     */
+    int size();
+
+    /**
+     * Hints the expected number of the originals, so the table can be allocated once instead of growing.
+     *
+     * @param expectedSize expected number of the originals
+     */
+    default void ensureCapacity(int expectedSize) {
+    }
+
+    /**
+     * Removes all the entries, so the table can be reused for another copy process.
+     * Must not be called while the table is used by other threads.
+     */
+    void clear();
+
+}
@@ -15,6 +15,10 @@
  */
 package io.github.sugarcubes.cloner;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Cloner interface.
  *
@@ -32,4 +36,47 @@ public interface Cloner {
      */
     <T> T clone(T object) throws ClonerException;
 
+    /**
+     * Creates deep clones of the objects in a single cloning process. The objects shared between the originals
+     * are shared between the clones too, so the common parts of the originals are copied only once.
+     *
+     * @param <T> object type
+     * @param objects objects to clone
+     * @return list of the clones in the iteration order of the originals
+     * @throws ClonerException if something went wrong
+     */
+    default <T> List<T> cloneAll(Collection<? extends T> objects) throws ClonerException {
+        return clone(new ArrayList<>(objects));
+    }
+
+    /**
+     * Creates deep clones of the objects in a single cloning process. The objects shared between the originals
+     * are shared between the clones too, so the common parts of the originals are copied only once.
+     *
+     * @param <T> object type
+     * @param objects objects to clone
+     * @return array of the clones of the same type as the originals array
+     * @throws ClonerException if something went wrong
+     * @see #cloneAll(Collection)
+     */
+    @SuppressWarnings("unchecked")
+    default <T> T[] cloneAll(T... objects) throws ClonerException {
+        return clone(objects);
+    }
+
+    /**
+     * Returns a new builder with the configuration of the cloner, so a cloner which differs from this one in a few
+     * settings can be derived, e.g. {@code cloner.toBuilder().typeAction(Foo.class, CopyAction.ORIGINAL).build()}.
+     * The derived cloner reuses the copier plans of the types which are not affected by the changes
+     * (see {@link CopierPlanCache}). The settings which are already set (e.g. the cloning mode or the policies)
+     * cannot be set again, but the actions, copiers, predefined clones etc. can be added. The profile-guided
+     * specialization and the warm-up metrics are not inherited, the derived builder can be given its own ones.
+     *
+     * @return new builder
+     * @throws UnsupportedOperationException if the cloner is not created with {@link ReflectionClonerBuilder}
+     */
+    default ReflectionClonerBuilder toBuilder() {
+        throw new UnsupportedOperationException("The cloner is not created with ReflectionClonerBuilder.");
+    }
+
 }
@@ -15,19 +15,30 @@
  */
 package io.github.sugarcubes.cloner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
  * Implementation of {@link Cloner}.
+ * <p>
+ * The contexts which support {@link AbstractCopyContext#reset()} are reused, see {@link ContextPool}.
  *
  * @author Maxim Butov
  */
 public class ClonerImpl implements Cloner {
 
     /**
-     * Creates context for the single copy process.
+     * Pool of the contexts.
      */
-    private final Supplier<? extends AbstractCopyContext> contextSupplier;
+    private final ContextPool contexts;
+
+    /**
+     * Configuration of the cloner, nullable.
+     */
+    private final ReflectionClonerBuilder configuration;
 
     /**
      * Creates cloner with custom context supplier.
@@ -35,18 +46,57 @@ public class ClonerImpl implements Cloner {
      * @param contextSupplier context supplier
      */
     public ClonerImpl(Supplier<? extends AbstractCopyContext> contextSupplier) {
-        this.contextSupplier = contextSupplier;
+        this(contextSupplier, null);
+    }
+
+    /**
+     * Creates cloner with context supplier and configuration.
+     *
+     * @param contextSupplier context supplier
+     * @param configuration configuration of the cloner, see {@link #toBuilder()}, nullable
+     */
+    ClonerImpl(Supplier<? extends AbstractCopyContext> contextSupplier, ReflectionClonerBuilder configuration) {
+        this.contexts = new ContextPool(contextSupplier);
+        this.configuration = configuration;
     }
 
     @Override
     public <T> T clone(T object) {
-        return ClonerExceptionUtils.replaceException(() -> {
-                AbstractCopyContext context = contextSupplier.get();
-                T clone = context.copy(object);
-                context.complete();
-                return clone;
-            }
-        );
+        return contexts.run(context -> {
+            T clone = context.copy(object);
+            context.complete();
+            return clone;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> cloneAll(Collection<? extends T> objects) {
+        Object[] originals = objects.toArray();
+        return new ArrayList<>((List<T>) Arrays.asList(cloneAll(originals, new Object[originals.length])));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] cloneAll(T... objects) {
+        return cloneAll(objects, Arrays.copyOf(objects, objects.length));
+    }
+
+    /**
+     * Copies the originals into the array of the clones in a single context.
+     *
+     * @param <T> object type
+     * @param originals original objects
+     * @param clones array of the clones
+     * @return array of the clones
+     */
+    private <T> T[] cloneAll(T[] originals, T[] clones) {
+        return contexts.run(context -> ContextPool.copyAll(context, originals, clones));
+    }
+
+    @Override
+    public ReflectionClonerBuilder toBuilder() {
+        return configuration != null ? new ReflectionClonerBuilder(configuration) : Cloner.super.toBuilder();
     }
 
 }
@@ -37,4 +37,20 @@ public enum CloningMode {
      */
     PARALLEL,
 
+    /**
+     * One thread, recursion up to the specified depth, the deeper objects are queued.
+     */
+    HYBRID,
+
+    /**
+     * Virtual threads, a failure cancels all the running tasks. Requires JDK 21+.
+     */
+    VIRTUAL,
+
+    /**
+     * Hybrid, sequential or parallel, chosen for every call on the basis of the statistics of the previous calls,
+     * see {@link AdaptiveCloner}.
+     */
+    ADAPTIVE,
+
 }
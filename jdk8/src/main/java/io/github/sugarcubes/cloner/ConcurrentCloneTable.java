@@ -0,0 +1,501 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free thread-safe clone table. The table is split into shards by {@link System#identityHashCode(Object)},
+ * every shard is an open addressing table with linear probing over the atomic arrays of keys and values.
+ * Putting an entry allocates nothing, except for the occasional resizing, and no locks are taken, neither
+ * on the table nor on the original objects.
+ * <p>
+ * A thread claims an original with {@link #claim(Object)}, which puts the thread itself as a placeholder value
+ * with CAS. Other threads claiming the same original wait until the clone is put into the table, so, an original
+ * is copied only once. The built-in copiers register the clone right after its allocation, so the waiting is short.
+ * <p>
+ * When a shard table becomes half full, a new table of the double size is attached to it, and the thread which has
+ * attached the table moves the entries. Moved slots are marked, the other threads follow the marks to the new table
+ * and never wait for the resizing to complete.
+ *
+ * @author Maxim Butov
+ */
+final class ConcurrentCloneTable implements CloneTable {
+
+    /**
+     * Maximal number of shards.
+     */
+    private static final int MAX_SHARDS = 64;
+
+    /**
+     * Number of shards per available processor.
+     */
+    private static final int SHARDS_PER_PROCESSOR = 4;
+
+    /**
+     * Number of shards, power of two.
+     */
+    private static final int SHARDS = Math.min(MAX_SHARDS,
+        Integer.highestOneBit(SHARDS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors() - 1) << 1);
+
+    /**
+     * Initial capacity of a shard, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Multiplier for Fibonacci hashing, the integer part of {@code 2^32 / phi}.
+     */
+    private static final int HASH_MULTIPLIER = 0x9e3779b9;
+
+    /**
+     * Marker of the key or the value which is moved to the next table.
+     */
+    private static final Object MOVED = new Object();
+
+    /**
+     * Marker of the original which copying has failed.
+     */
+    private static final Object FAILED = new Object();
+
+    /**
+     * Result of the lookup: the key is absent.
+     */
+    private static final int ABSENT = -1;
+
+    /**
+     * Result of the lookup: the key must be looked up in the next table.
+     */
+    private static final int NEXT = Integer.MIN_VALUE;
+
+    /**
+     * Current tables of the shards, created lazily.
+     */
+    private final AtomicReferenceArray<Table> shards = new AtomicReferenceArray<>(SHARDS);
+
+    @Override
+    public Object get(Object original) {
+        int hash = hash(original);
+        for (Table table = head(hash); table != null; table = table.next.get()) {
+            int index = table.find(original, hash);
+            if (index == ABSENT) {
+                return null;
+            }
+            if (index != NEXT) {
+                Object value = table.values.get(index);
+                if (value != MOVED) {
+                    return isClone(value) ? unwrap(value) : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(Object original, Object clone) {
+        int hash = hash(original);
+        store(head(hash), original, hash, wrap(clone));
+    }
+
+    @Override
+    public Object claim(Object original) {
+        int hash = hash(original);
+        Thread thread = Thread.currentThread();
+        boolean claimed = false;
+        Table table = head(hash);
+        while (true) {
+            int index = insert(table, original, hash);
+            if (index == NEXT) {
+                table = next(table, hash);
+                continue;
+            }
+            if (index < 0) {
+                index = ~index;
+                claimed = true;
+            }
+            Object value = table.values.get(index);
+            if (value == MOVED) {
+                table = table.next.get();
+            }
+            else if (claimed) {
+                if (table.values.compareAndSet(index, null, thread)) {
+                    return null;
+                }
+            }
+            else if (isClone(value)) {
+                return unwrap(value);
+            }
+            else {
+                await(original, value, thread);
+            }
+        }
+    }
+
+    @Override
+    public void release(Object original) {
+        int hash = hash(original);
+        Thread thread = Thread.currentThread();
+        for (Table table = head(hash); table != null; table = table.next.get()) {
+            int index = table.find(original, hash);
+            if (index == ABSENT) {
+                return;
+            }
+            if (index != NEXT && (table.values.compareAndSet(index, thread, FAILED)
+                || table.values.get(index) != MOVED)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            Table table = shards.get(shard);
+            if (table != null) {
+                size += table.size.get();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            shards.set(shard, null);
+        }
+    }
+
+    /**
+     * Returns the hash of the key. The lowest bits select the shard, the highest bits select the slot.
+     *
+     * @param key key
+     * @return hash
+     */
+    private static int hash(Object key) {
+        return System.identityHashCode(key) * HASH_MULTIPLIER;
+    }
+
+    /**
+     * Returns the current table of the shard, creates it if necessary.
+     *
+     * @param hash hash of the key
+     * @return table
+     */
+    private Table head(int hash) {
+        int shard = hash & (SHARDS - 1);
+        Table table = shards.get(shard);
+        if (table == null) {
+            shards.compareAndSet(shard, null, new Table(INITIAL_CAPACITY));
+            table = shards.get(shard);
+        }
+        return table;
+    }
+
+    /**
+     * Inserts the key into the table if it is absent. Starts resizing of the table if it is half full.
+     *
+     * @param table table
+     * @param key key
+     * @param hash hash of the key
+     * @return index of the existing key, inverted index of the inserted key, or {@link #NEXT}
+     */
+    private int insert(Table table, Object key, int hash) {
+        int index = table.insert(key, hash);
+        if (index < 0 && index != NEXT && table.size.incrementAndGet() > table.capacity() >> 1) {
+            grow(table, hash);
+        }
+        return index;
+    }
+
+    /**
+     * Stores the value for the key, starting from the specified table.
+     *
+     * @param table table
+     * @param key key
+     * @param hash hash of the key
+     * @param value value
+     */
+    private void store(Table table, Object key, int hash, Object value) {
+        Table current = table;
+        while (true) {
+            int index = insert(current, key, hash);
+            if (index == NEXT) {
+                current = next(current, hash);
+                continue;
+            }
+            if (index < 0) {
+                index = ~index;
+            }
+            Object previous = current.values.get(index);
+            if (previous == MOVED) {
+                current = current.next.get();
+            }
+            else if (current.values.compareAndSet(index, previous, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the next table, creates it if necessary.
+     *
+     * @param table table
+     * @param hash hash of the key
+     * @return next table
+     */
+    private Table next(Table table, int hash) {
+        Table next = table.next.get();
+        if (next == null) {
+            grow(table, hash);
+            next = table.next.get();
+        }
+        return next;
+    }
+
+    /**
+     * Attaches the next table of the double size and moves the entries into it, unless another thread
+     * has already done it.
+     *
+     * @param table table
+     * @param hash hash of any key of the shard
+     */
+    private void grow(Table table, int hash) {
+        if (table.next.get() != null || !table.next.compareAndSet(null, new Table(table.capacity() << 1))) {
+            return;
+        }
+        Table next = table.next.get();
+        for (int index = 0; index < table.capacity(); index++) {
+            transfer(table, index, next);
+        }
+        table.migrated = true;
+        int shard = hash & (SHARDS - 1);
+        for (Table head; (head = shards.get(shard)).migrated; ) {
+            shards.compareAndSet(shard, head, head.next.get());
+        }
+    }
+
+    /**
+     * Moves the slot to the next table and marks it as moved. The value is copied again if it is changed
+     * by the owner before marking.
+     *
+     * @param table table
+     * @param index index of the slot
+     * @param next next table
+     */
+    private void transfer(Table table, int index, Table next) {
+        while (true) {
+            Object key = table.keys.get(index);
+            if (key == null) {
+                if (table.keys.compareAndSet(index, null, MOVED)) {
+                    return;
+                }
+            }
+            else {
+                Object value = table.values.get(index);
+                store(next, key, hash(key), value);
+                if (table.values.compareAndSet(index, value, MOVED)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the clone of the original claimed by another thread.
+     *
+     * @param original original object
+     * @param value current value: the owning thread, {@link #FAILED} or {@code null}
+     * @param thread current thread
+     */
+    private static void await(Object original, Object value, Thread thread) {
+        if (value == thread) {
+            throw new ClonerException(String.format("Object '%s' is copied recursively before its clone " +
+                "is registered.", original));
+        }
+        if (value == FAILED) {
+            throw new ClonerException(String.format("Copying of '%s' has failed in another thread.", original));
+        }
+        Thread.yield();
+    }
+
+    /**
+     * Checks whether the value is a clone: not a placeholder and not a marker.
+     *
+     * @param value value
+     * @return {@code true} if the value is a clone
+     */
+    private static boolean isClone(Object value) {
+        return value != null && !(value instanceof Thread) && value != FAILED;
+    }
+
+    /**
+     * Wraps the clone which is a thread, so it cannot be confused with a placeholder.
+     *
+     * @param clone clone
+     * @return value to put into the table
+     */
+    private static Object wrap(Object clone) {
+        return clone instanceof Thread ? new ThreadClone((Thread) clone) : clone;
+    }
+
+    /**
+     * Unwraps the value put with {@link #wrap(Object)}.
+     *
+     * @param value value
+     * @return clone
+     */
+    private static Object unwrap(Object value) {
+        return value instanceof ThreadClone ? ((ThreadClone) value).clone : value;
+    }
+
+    /**
+     * Shard table. The value of a key is {@code null} right after the key insertion, the owning thread while
+     * the original is being copied, and then the clone.
+     */
+    private static final class Table {
+
+        /**
+         * Original objects.
+         */
+        final AtomicReferenceArray<Object> keys;
+
+        /**
+         * Values, {@code values[i]} is the value of {@code keys[i]}.
+         */
+        final AtomicReferenceArray<Object> values;
+
+        /**
+         * Shift of the hash to get the index in the table.
+         */
+        final int shift;
+
+        /**
+         * Number of keys.
+         */
+        final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * Next table of the double size, which the entries are moved into.
+         */
+        final AtomicReference<Table> next = new AtomicReference<>();
+
+        /**
+         * Whether all the entries are moved into the next table.
+         */
+        volatile boolean migrated;
+
+        /**
+         * Creates an empty table.
+         *
+         * @param capacity capacity, power of two
+         */
+        Table(int capacity) {
+            keys = new AtomicReferenceArray<>(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        }
+
+        /**
+         * Returns capacity of the table.
+         *
+         * @return capacity
+         */
+        int capacity() {
+            return keys.length();
+        }
+
+        /**
+         * Finds the key.
+         *
+         * @param key key
+         * @param hash hash of the key
+         * @return index of the key, {@link #ABSENT} or {@link #NEXT}
+         */
+        int find(Object key, int hash) {
+            int mask = capacity() - 1;
+            int index = hash >>> shift;
+            for (int probe = 0; probe <= mask; probe++) {
+                Object current = keys.get(index);
+                if (current == key) {
+                    return index;
+                }
+                if (current == null) {
+                    return ABSENT;
+                }
+                if (current == MOVED) {
+                    return NEXT;
+                }
+                index = (index + 1) & mask;
+            }
+            return NEXT;
+        }
+
+        /**
+         * Inserts the key if it is absent.
+         *
+         * @param key key
+         * @param hash hash of the key
+         * @return index of the existing key, inverted index of the inserted key, or {@link #NEXT}
+         */
+        int insert(Object key, int hash) {
+            int mask = capacity() - 1;
+            int index = hash >>> shift;
+            for (int probe = 0; probe <= mask; probe++) {
+                Object current = keys.get(index);
+                if (current == null) {
+                    if (keys.compareAndSet(index, null, key)) {
+                        return ~index;
+                    }
+                    current = keys.get(index);
+                }
+                if (current == key) {
+                    return index;
+                }
+                if (current == MOVED) {
+                    return NEXT;
+                }
+                index = (index + 1) & mask;
+            }
+            return NEXT;
+        }
+
+    }
+
+    /**
+     * Clone which is a thread.
+     */
+    private static final class ThreadClone {
+
+        /**
+         * Clone.
+         */
+        final Thread clone;
+
+        /**
+         * Creates a wrapper.
+         *
+         * @param clone clone
+         */
+        ThreadClone(Thread clone) {
+            this.clone = clone;
+        }
+
+    }
+
+}
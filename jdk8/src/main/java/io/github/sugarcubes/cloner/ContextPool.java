@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread pool of the copy contexts. The contexts which support {@link AbstractCopyContext#reset()} are reused:
+ * every thread keeps its last context and takes it for the next copy process. The context is taken out of the pool
+ * for the time of the process, so a nested process started from a custom {@link ObjectCopier} gets a new context
+ * and does not corrupt the state of the outer one.
+ *
+ * @author Maxim Butov
+ */
+final class ContextPool {
+
+    /**
+     * Creates context for the single copy process.
+     */
+    private final Supplier<? extends AbstractCopyContext> contextSupplier;
+
+    /**
+     * Reusable context of the current thread, {@code null} if the context is in use or cannot be reused.
+     */
+    private final ThreadLocal<AbstractCopyContext> pooledContext = new ThreadLocal<>();
+
+    /**
+     * Copy process which runs in a context of the pool.
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    interface Process<T> {
+
+        /**
+         * Copies the objects and completes the copying.
+         *
+         * @param context context
+         * @return result
+         * @throws Throwable if something went wrong
+         */
+        T run(AbstractCopyContext context) throws Throwable;
+
+    }
+
+    /**
+     * Creates pool.
+     *
+     * @param contextSupplier context supplier
+     */
+    ContextPool(Supplier<? extends AbstractCopyContext> contextSupplier) {
+        this.contextSupplier = contextSupplier;
+    }
+
+    /**
+     * Takes the pooled context of the current thread or creates a new one.
+     *
+     * @return context
+     */
+    private AbstractCopyContext acquire() {
+        AbstractCopyContext context = pooledContext.get();
+        if (context == null) {
+            return contextSupplier.get();
+        }
+        pooledContext.set(null);
+        return context;
+    }
+
+    /**
+     * Runs the copy process in a context of the pool and returns the context to the pool afterwards.
+     *
+     * @param <T> result type
+     * @param process copy process
+     * @return result
+     * @throws ClonerException if something went wrong
+     */
+    <T> T run(Process<T> process) throws ClonerException {
+        return ClonerExceptionUtils.replaceException(() -> {
+                AbstractCopyContext context = acquire();
+                try {
+                    return process.run(context);
+                }
+                finally {
+                    release(context);
+                }
+            }
+        );
+    }
+
+    /**
+     * Copies the originals into the array of the clones and completes the copying.
+     *
+     * @param <T> object type
+     * @param context context
+     * @param originals original objects
+     * @param clones array of the clones
+     * @return array of the clones
+     * @throws Throwable if something went wrong
+     */
+    static <T> T[] copyAll(AbstractCopyContext context, T[] originals, T[] clones) throws Throwable {
+        for (int k = 0; k < originals.length; k++) {
+            clones[k] = context.copy(originals[k]);
+        }
+        context.complete();
+        return clones;
+    }
+
+    /**
+     * Resets the context and returns it to the pool, if the context can be reused.
+     *
+     * @param context context
+     */
+    private void release(AbstractCopyContext context) {
+        if (context.reset()) {
+            pooledContext.set(context);
+        }
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of the copier plans ({@link ReflectionCopier} instances) shared by the cloners.
+ * A plan is keyed by the class and the fingerprint of the effective configuration: the object allocator and the field
+ * copier factory (by identity), the plan of the super class (by identity), shallow mode, and the effective actions
+ * of the fields declared by the class. So, the cloners which differ in the configuration of the unrelated types,
+ * e.g. the cloners derived with {@link Cloner#toBuilder()}, share the plans, including the generated field copiers.
+ * <p>
+ * The plans are referenced weakly, a plan lives while some cloner uses it.
+ *
+ * @author Maxim Butov
+ */
+final class CopierPlanCache {
+
+    /**
+     * Plans of the classes.
+     */
+    private static final ClassValue<Map<Key, PlanReference>> PLANS = new ClassValue<Map<Key, PlanReference>>() {
+        @Override
+        protected Map<Key, PlanReference> computeValue(Class<?> type) {
+            return new HashMap<>();
+        }
+    };
+
+    /**
+     * Queue of the references to the collected plans.
+     */
+    private static final ReferenceQueue<ReflectionCopier<?>> QUEUE = new ReferenceQueue<>();
+
+    /**
+     * Utility class.
+     */
+    private CopierPlanCache() {
+    }
+
+    /**
+     * Returns the shared plan for the type and the configuration, or creates a new one.
+     *
+     * @param <T> object type
+     * @param type object type
+     * @param allocator object allocator
+     * @param fieldCopierFactory field copier factory
+     * @param parent plan of the super type, nullable
+     * @param shallow shallow mode
+     * @param actions effective actions of the non-static fields declared by the type
+     * @return copier plan
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ReflectionCopier<T> get(Class<T> type, ObjectFactoryProvider allocator, FieldCopierFactory fieldCopierFactory,
+        ReflectionCopier<?> parent, boolean shallow, Map<Field, CopyAction> actions) {
+        expunge();
+        Key key = new Key(allocator, fieldCopierFactory, parent, shallow, actions);
+        Map<Key, PlanReference> plans = PLANS.get(type);
+        synchronized (plans) {
+            PlanReference reference = plans.get(key);
+            ReflectionCopier<T> plan = reference != null ? (ReflectionCopier<T>) reference.get() : null;
+            if (plan == null) {
+                plan = new ReflectionCopier<>(actions::get, allocator, type, fieldCopierFactory, parent, shallow);
+                plans.put(key, new PlanReference(plan, plans, key));
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * Removes the entries of the collected plans.
+     */
+    private static void expunge() {
+        Reference<?> reference;
+        while ((reference = QUEUE.poll()) != null) {
+            PlanReference plan = (PlanReference) reference;
+            synchronized (plan.plans) {
+                plan.plans.remove(plan.key, plan);
+            }
+        }
+    }
+
+    /**
+     * Weak reference to the plan, which knows its entry.
+     */
+    private static final class PlanReference extends WeakReference<ReflectionCopier<?>> {
+
+        /**
+         * Plans of the class.
+         */
+        final Map<Key, PlanReference> plans;
+
+        /**
+         * Key of the plan.
+         */
+        final Key key;
+
+        /**
+         * Creates reference.
+         *
+         * @param plan plan
+         * @param plans plans of the class
+         * @param key key of the plan
+         */
+        PlanReference(ReflectionCopier<?> plan, Map<Key, PlanReference> plans, Key key) {
+            super(plan, QUEUE);
+            this.plans = plans;
+            this.key = key;
+        }
+
+    }
+
+    /**
+     * Fingerprint of the configuration which the plan of a class depends on.
+     */
+    private static final class Key {
+
+        /**
+         * Object allocator.
+         */
+        final ObjectFactoryProvider allocator;
+
+        /**
+         * Field copier factory.
+         */
+        final FieldCopierFactory fieldCopierFactory;
+
+        /**
+         * Plan of the super type, nullable.
+         */
+        final ReflectionCopier<?> parent;
+
+        /**
+         * Shallow mode.
+         */
+        final boolean shallow;
+
+        /**
+         * Effective actions of the fields declared by the class.
+         */
+        final Map<Field, CopyAction> actions;
+
+        /**
+         * Creates key.
+         *
+         * @param allocator object allocator
+         * @param fieldCopierFactory field copier factory
+         * @param parent plan of the super type, nullable
+         * @param shallow shallow mode
+         * @param actions effective actions of the fields declared by the class
+         */
+        Key(ObjectFactoryProvider allocator, FieldCopierFactory fieldCopierFactory, ReflectionCopier<?> parent, boolean shallow,
+            Map<Field, CopyAction> actions) {
+            this.allocator = allocator;
+            this.fieldCopierFactory = fieldCopierFactory;
+            this.parent = parent;
+            this.shallow = shallow;
+            this.actions = actions;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return allocator == other.allocator && fieldCopierFactory == other.fieldCopierFactory && parent == other.parent &&
+                shallow == other.shallow && actions.equals(other.actions);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(allocator);
+            hash = 31 * hash + System.identityHashCode(fieldCopierFactory);
+            hash = 31 * hash + System.identityHashCode(parent);
+            hash = 31 * hash + Boolean.hashCode(shallow);
+            return 31 * hash + actions.hashCode();
+        }
+
+    }
+
+}
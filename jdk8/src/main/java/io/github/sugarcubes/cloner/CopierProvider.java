@@ -31,4 +31,16 @@ public interface CopierProvider {
      */
     <T> ObjectCopier<T> getCopier(T original);
 
+    /**
+     * Returns copier for all the objects of the type, or {@code null} if the copier depends on the object itself,
+     * e.g. when a policy for the objects is used. The result may be cached by the callers, see {@link CopyContext#copy(Object, ObjectCopier)}.
+     *
+     * @param <T> object type
+     * @param type object type
+     * @return object copier or {@code null}
+     */
+    default <T> ObjectCopier<T> getTypeCopier(Class<T> type) {
+        return null;
+    }
+
 }
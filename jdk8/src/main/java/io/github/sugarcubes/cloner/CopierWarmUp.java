@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Warm-up of the copiers, see {@link ReflectionClonerBuilder#warmUp(Class[])}. The copiers of the root types are created
+ * in parallel, then the copiers of the types of their fields, and so on, level by level. Only the concrete types
+ * are prepared, the actual classes of the values of the fields of the abstract types are unknown.
+ *
+ * @author Maxim Butov
+ */
+final class CopierWarmUp {
+
+    /**
+     * Copier provider.
+     */
+    private final ReflectionCopierProvider provider;
+
+    /**
+     * Types visited so far.
+     */
+    private final Set<Class<?>> visited = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Types which copiers have been created.
+     */
+    private final Set<Class<?>> prepared = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Types which copiers could not be created.
+     */
+    private final Set<Class<?>> failed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates warm-up.
+     *
+     * @param provider copier provider
+     */
+    private CopierWarmUp(ReflectionCopierProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Creates the copiers of the root types and the types reachable from them.
+     *
+     * @param provider copier provider
+     * @param roots root types
+     * @param metrics metrics to fill, nullable
+     */
+    static void warmUp(ReflectionCopierProvider provider, Collection<Class<?>> roots, WarmUpMetrics metrics) {
+        long start = System.nanoTime();
+        CopierWarmUp warmUp = new CopierWarmUp(provider);
+        List<Class<?>> level = warmUp.next(roots);
+        while (!level.isEmpty()) {
+            level = warmUp.next(level.parallelStream()
+                .flatMap(type -> warmUp.prepare(type).stream())
+                .collect(Collectors.toList()));
+        }
+        if (metrics != null) {
+            metrics.completed(warmUp.prepared, warmUp.failed, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the concrete types which are not visited yet.
+     *
+     * @param types types
+     * @return types to prepare
+     */
+    private List<Class<?>> next(Collection<Class<?>> types) {
+        return types.stream()
+            .filter(type -> !type.isPrimitive() && (type.isArray() || !Modifier.isAbstract(type.getModifiers())))
+            .filter(visited::add)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Creates the copier of the type.
+     *
+     * @param type type
+     * @return types reachable from the type
+     */
+    private Collection<Class<?>> prepare(Class<?> type) {
+        try {
+            Collection<Class<?>> reachable = provider.prepare(type);
+            prepared.add(type);
+            return reachable;
+        }
+        catch (RuntimeException | LinkageError e) {
+            failed.add(type);
+            return Collections.emptySet();
+        }
+    }
+
+}
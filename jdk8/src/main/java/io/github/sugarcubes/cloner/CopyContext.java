@@ -44,6 +44,41 @@ public interface CopyContext {
      */
     <T> T copy(T original) throws Exception;
 
+    /**
+     * Same as {@link #copy(Object)}, but the object is copied with the copier obtained previously with
+     * {@link #getTypeCopier(Class)} for the class of the object, so, the lookup of the copier is skipped.
+     *
+     * @param <T> object type
+     * @param original original
+     * @param copier copier of the objects of the class of the original
+     * @return clone
+     * @throws Exception if something went wrong
+     */
+    default <T> T copy(T original, ObjectCopier<T> copier) throws Exception {
+        return copy(original);
+    }
+
+    /**
+     * Returns copier for all the objects of the type, see {@link CopierProvider#getTypeCopier(Class)}.
+     *
+     * @param <T> object type
+     * @param type object type
+     * @return object copier or {@code null} if the copier depends on the object itself
+     */
+    default <T> ObjectCopier<T> getTypeCopier(Class<T> type) {
+        return null;
+    }
+
+    /**
+     * Returns copier provider of the context. The copiers returned by {@link #getTypeCopier(Class)} are valid only
+     * for the contexts with the same copier provider.
+     *
+     * @return copier provider or {@code null} if unknown
+     */
+    default CopierProvider getCopierProvider() {
+        return null;
+    }
+
     /**
      * Invokes task. It can be invoked immediately or later depending on the context implementation.
      * The result of callable is ignored.
@@ -53,4 +88,34 @@ public interface CopyContext {
      */
     void thenInvoke(Callable<?> task) throws Exception;
 
+    /**
+     * Invokes the second phase of the two-phase copier, see {@link TwoPhaseObjectCopier#deepCopy(Object, Object, CopyContext)}.
+     * It can be invoked immediately or later depending on the context implementation.
+     * The contexts may store the arguments as is and avoid allocation of a task per object.
+     *
+     * @param <T> object type
+     * @param copier two-phase copier
+     * @param original original object
+     * @param clone clone
+     * @throws Exception if something went wrong
+     */
+    default <T> void thenCopy(TwoPhaseObjectCopier<T> copier, T original, T clone) throws Exception {
+        thenInvoke(
+            () -> {
+                copier.deepCopy(original, clone, this);
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Returns the number of elements of an array or a collection above which the elements are copied by several
+     * tasks, each task copies its own range of the elements.
+     *
+     * @return split threshold, {@link Integer#MAX_VALUE} if the context does not copy in parallel
+     */
+    default int getSplitThreshold() {
+        return Integer.MAX_VALUE;
+    }
+
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * Single-thread queue of the delayed copy tasks. Unlike a deque of {@link Callable}s, the queue stores
+ * the second phases of the two-phase copiers as (copier, original, clone) entries in the parallel arrays,
+ * which are used as a ring buffer, so, queueing allocates nothing, except for the occasional resizing.
+ *
+ * @author Maxim Butov
+ */
+final class CopyTaskQueue {
+
+    /**
+     * Initial capacity, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Maximal capacity which is kept by {@link #clear()}.
+     */
+    static final int MAX_RETAINED_CAPACITY = 1024;
+
+    /**
+     * Whether the last queued task is run first (depth-first traversal) or the first one (breadth-first traversal).
+     */
+    private final boolean lifo;
+
+    /**
+     * Tasks: {@link TwoPhaseObjectCopier}s or {@link Callable}s.
+     */
+    private Object[] tasks;
+
+    /**
+     * Originals for the copiers, {@code null} for the callables.
+     */
+    private Object[] originals;
+
+    /**
+     * Clones for the copiers.
+     */
+    private Object[] clones;
+
+    /**
+     * Index of the first entry.
+     */
+    private int head;
+
+    /**
+     * Index after the last entry.
+     */
+    private int tail;
+
+    /**
+     * Maximal number of the entries since the last {@link #clear()}.
+     */
+    private int maxSize;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param lifo whether the last queued task is run first
+     */
+    CopyTaskQueue(boolean lifo) {
+        this.lifo = lifo;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Allocates arrays for the specified capacity.
+     *
+     * @param capacity capacity, power of two
+     */
+    private void allocate(int capacity) {
+        tasks = new Object[capacity];
+        originals = new Object[capacity];
+        clones = new Object[capacity];
+    }
+
+    /**
+     * Adds the task to the queue.
+     *
+     * @param task task
+     */
+    void offer(Callable<?> task) {
+        offer(task, null, null);
+    }
+
+    /**
+     * Adds the second phase of the two-phase copier to the queue.
+     *
+     * @param copier copier
+     * @param original original object
+     * @param clone clone
+     */
+    void offer(TwoPhaseObjectCopier<?> copier, Object original, Object clone) {
+        offer((Object) copier, original, clone);
+    }
+
+    /**
+     * Adds the entry to the queue.
+     *
+     * @param task task
+     * @param original original object
+     * @param clone clone
+     */
+    private void offer(Object task, Object original, Object clone) {
+        int index = tail;
+        tasks[index] = task;
+        originals[index] = original;
+        clones[index] = clone;
+        tail = (index + 1) & (tasks.length - 1);
+        if (tail == head) {
+            resize();
+        }
+        int size = (tail - head) & (tasks.length - 1);
+        if (size > maxSize) {
+            maxSize = size;
+        }
+    }
+
+    /**
+     * Returns whether the queue is empty.
+     *
+     * @return {@code true} if the queue is empty
+     */
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * Removes the next task from the non-empty queue and runs it.
+     *
+     * @param context copy context for the copiers
+     * @throws Exception if something went wrong
+     */
+    @SuppressWarnings("unchecked")
+    void runNext(CopyContext context) throws Exception {
+        int mask = tasks.length - 1;
+        int index;
+        if (lifo) {
+            tail = (tail - 1) & mask;
+            index = tail;
+        }
+        else {
+            index = head;
+            head = (head + 1) & mask;
+        }
+        Object task = tasks[index];
+        Object original = originals[index];
+        Object clone = clones[index];
+        tasks[index] = null;
+        originals[index] = null;
+        clones[index] = null;
+        if (original == null) {
+            ((Callable<?>) task).call();
+        }
+        else {
+            ((TwoPhaseObjectCopier<Object>) task).deepCopy(original, clone, context);
+        }
+    }
+
+    /**
+     * Removes all the entries. Releases the arrays if they have grown bigger than {@link #MAX_RETAINED_CAPACITY}.
+     */
+    void clear() {
+        if (tasks.length > MAX_RETAINED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        }
+        else if (head != tail) {
+            Arrays.fill(tasks, null);
+            Arrays.fill(originals, null);
+            Arrays.fill(clones, null);
+        }
+        head = 0;
+        tail = 0;
+        maxSize = 0;
+    }
+
+    /**
+     * Allocates the queue for the expected number of the entries at once, if the queue is empty.
+     *
+     * @param expectedSize expected maximal number of the entries
+     */
+    void ensureCapacity(int expectedSize) {
+        if (isEmpty() && expectedSize >= tasks.length) {
+            allocate(Integer.highestOneBit(expectedSize) << 1);
+            head = 0;
+            tail = 0;
+        }
+    }
+
+    /**
+     * Returns the maximal number of the entries since the last {@link #clear()}.
+     *
+     * @return high-water mark of the queue
+     */
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the capacity of the queue.
+     *
+     * @return capacity
+     */
+    int capacity() {
+        return tasks.length;
+    }
+
+    /**
+     * Doubles the capacity of the full queue.
+     */
+    private void resize() {
+        Object[] oldTasks = tasks;
+        Object[] oldOriginals = originals;
+        Object[] oldClones = clones;
+        int length = oldTasks.length;
+        allocate(length << 1);
+        int first = length - head;
+        System.arraycopy(oldTasks, head, tasks, 0, first);
+        System.arraycopy(oldTasks, 0, tasks, first, head);
+        System.arraycopy(oldOriginals, head, originals, 0, first);
+        System.arraycopy(oldOriginals, 0, originals, first, head);
+        System.arraycopy(oldClones, head, clones, 0, first);
+        System.arraycopy(oldClones, 0, clones, first, head);
+        head = 0;
+        tail = length;
+    }
+
+}
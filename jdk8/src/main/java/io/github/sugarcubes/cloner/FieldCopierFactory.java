@@ -16,6 +16,7 @@
 package io.github.sugarcubes.cloner;
 
 import java.lang.reflect.Field;
+import java.util.Map;
 
 /**
  * Field copier factory.
@@ -33,4 +34,44 @@ public interface FieldCopierFactory {
      */
     FieldCopier getFieldCopier(Field field, CopyAction action);
 
+    /**
+     * Returns copier of the reference field, which copies the field value with the value copier instead of
+     * {@link CopyContext#copy(Object)}. Used for the plans specialized on the profile of the values,
+     * see {@link ReflectionClonerBuilder#profile(int, ProfileMetrics)}.
+     * Default implementation returns {@code null}, i.e. the value copiers are not supported.
+     *
+     * @param field reference field
+     * @param valueCopier copier of the field value
+     * @return field copier or {@code null}
+     */
+    default FieldCopier getReferenceFieldCopier(Field field, ObjectCopier<Object> valueCopier) {
+        return null;
+    }
+
+    /**
+     * Returns copier for the set of fields, usually all the non-static fields of the type and its super types.
+     * Default implementation invokes copiers of the single fields one by one.
+     *
+     * @param fields map (field, copying action) in the order of copying
+     * @return field copier
+     */
+    default FieldCopier getFieldCopier(Map<Field, CopyAction> fields) {
+        FieldCopier[] copiers = fields.entrySet().stream()
+            .map(entry -> getFieldCopier(entry.getKey(), entry.getValue()))
+            .filter(copier -> copier != FieldCopier.NOOP)
+            .toArray(FieldCopier[]::new);
+        switch (copiers.length) {
+            case 0:
+                return FieldCopier.NOOP;
+            case 1:
+                return copiers[0];
+            default:
+                return (original, clone, context) -> {
+                    for (FieldCopier copier : copiers) {
+                        copier.copy(original, clone, context);
+                    }
+                };
+        }
+    }
+
 }
@@ -0,0 +1,440 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Generator of the bytecode of {@link FieldCopier} implementations. The generated class has the single straight-line
+ * method {@link FieldCopier#copy(Object, Object, CopyContext)}, which copies all the fields with
+ * {@link BytecodeFieldCopierFactory#UNSAFE}. The code has no branches, so, the class file version is 52 (Java 8)
+ * and no stack map frames are needed.
+ *
+ * @author Maxim Butov
+ */
+@SuppressWarnings("checkstyle:MultipleStringLiterals")
+final class FieldCopierGenerator {
+
+    /**
+     * Package of the generated classes. Must be the cloner's package, so the generated class can access package-private
+     * members.
+     */
+    private static final String PACKAGE = "io/github/sugarcubes/cloner/";
+
+    /**
+     * Name of the generated class.
+     */
+    private static final String CLASS_NAME = PACKAGE + "GeneratedFieldCopier";
+
+    /**
+     * Descriptor of {@link UnsafeBridge}.
+     */
+    private static final String UNSAFE_DESCRIPTOR = "L" + PACKAGE + "UnsafeBridge;";
+
+    /**
+     * Descriptor of {@link Object}.
+     */
+    private static final String OBJECT_DESCRIPTOR = "Ljava/lang/Object;";
+
+    /**
+     * Maximal operand stack depth, when copying a field with {@link CopyAction#DEFAULT} action:
+     * unsafe, clone, offset (2 slots), context, unsafe, original, offset (2 slots).
+     */
+    private static final int MAX_STACK = 9;
+
+    /**
+     * Number of the local variable slots of the copy method: this, original, clone, context.
+     */
+    private static final int MAX_LOCALS = 4;
+
+    /**
+     * Magic number of the class file.
+     */
+    private static final int MAGIC = 0xCAFEBABE;
+
+    /**
+     * Class file version of Java 8.
+     */
+    private static final int CLASS_VERSION_8 = 52;
+
+    /**
+     * Size of the fixed part of the code attribute: max stack (2 bytes), max locals (2), code length (4),
+     * exception table length (2) and attributes count (2).
+     */
+    private static final int CODE_HEADER_SIZE = 12;
+
+    /**
+     * Number of the argument slots of {@link UnsafeBridge} getters: this, object, offset (2 slots). The setters take
+     * the value in addition.
+     */
+    private static final int ACCESSOR_SLOTS = 4;
+
+    /**
+     * Constant pool tags.
+     */
+    private static final int UTF8 = 1, LONG = 5, CLASS = 7, FIELD_REF = 9, METHOD_REF = 10, INTERFACE_METHOD_REF = 11,
+        NAME_AND_TYPE = 12;
+
+    /**
+     * Opcodes.
+     */
+    private static final int ACONST_NULL = 0x01, LDC2_W = 0x14, ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_2 = 0x2c,
+        ALOAD_3 = 0x2d, RETURN = 0xb1, GETSTATIC = 0xb2, INVOKESPECIAL = 0xb7, INVOKEINTERFACE = 0xb9;
+
+    /**
+     * Access flags.
+     */
+    private static final int ACC_PUBLIC = 0x0001, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+
+    /**
+     * Constant pool content.
+     */
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+
+    /**
+     * Constant pool writer.
+     */
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+
+    /**
+     * Indices of the constant pool entries.
+     */
+    private final Map<String, Integer> entries = new HashMap<>();
+
+    /**
+     * Next constant pool index.
+     */
+    private int nextIndex = 1;
+
+    /**
+     * Index of {@link UnsafeBridge} class constant.
+     */
+    private int unsafeClass;
+
+    /**
+     * Index of {@link BytecodeFieldCopierFactory#UNSAFE} field constant.
+     */
+    private int unsafe;
+
+    /**
+     * Index of {@link CopyContext#copy(Object)} method constant.
+     */
+    private int contextCopy;
+
+    /**
+     * Generates bytecode of the field copier class.
+     *
+     * @param fields map (field, action), the fields with {@link CopyAction#SKIP} action are ignored
+     * @param offsets field offset function
+     * @return class bytecode
+     */
+    static byte[] generate(Map<Field, CopyAction> fields, ToLongFunction<Field> offsets) {
+        return ClonerExceptionUtils.replaceException(() -> new FieldCopierGenerator().generateClass(fields, offsets));
+    }
+
+    /**
+     * Generates bytecode of the class.
+     *
+     * @param fields map (field, action)
+     * @param offsets field offset function
+     * @return class bytecode
+     * @throws IOException never
+     */
+    private byte[] generateClass(Map<Field, CopyAction> fields, ToLongFunction<Field> offsets) throws IOException {
+        int thisClass = classRef(CLASS_NAME);
+        int superClass = classRef("java/lang/Object");
+        int copierInterface = classRef(PACKAGE + "FieldCopier");
+        byte[] constructor = method("<init>", "()V", 1, 1, constructorCode(superClass));
+        byte[] copy = method("copy", "(" + OBJECT_DESCRIPTOR + OBJECT_DESCRIPTOR + "L" + PACKAGE + "CopyContext;)V",
+            MAX_STACK, MAX_LOCALS, copyCode(fields, offsets));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(0);
+        out.writeShort(CLASS_VERSION_8);
+        out.writeShort(nextIndex);
+        pool.writeTo(out);
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        // interfaces
+        out.writeShort(1);
+        out.writeShort(copierInterface);
+        // fields
+        out.writeShort(0);
+        // methods
+        out.writeShort(2);
+        out.write(constructor);
+        out.write(copy);
+        // attributes
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Generates code of the default constructor.
+     *
+     * @param superClass super class index
+     * @return code
+     * @throws IOException never
+     */
+    private byte[] constructorCode(int superClass) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(bytes);
+        code.writeByte(ALOAD_0);
+        code.writeByte(INVOKESPECIAL);
+        code.writeShort(memberRef(METHOD_REF, superClass, "<init>", "()V"));
+        code.writeByte(RETURN);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Generates code of the {@link FieldCopier#copy(Object, Object, CopyContext)} method.
+     *
+     * @param fields map (field, action)
+     * @param offsets field offset function
+     * @return code
+     * @throws IOException never
+     */
+    private byte[] copyCode(Map<Field, CopyAction> fields, ToLongFunction<Field> offsets) throws IOException {
+        unsafeClass = classRef(PACKAGE + "UnsafeBridge");
+        unsafe = memberRef(FIELD_REF, classRef(PACKAGE + "BytecodeFieldCopierFactory"), "UNSAFE", UNSAFE_DESCRIPTOR);
+        contextCopy = memberRef(INTERFACE_METHOD_REF, classRef(PACKAGE + "CopyContext"), "copy",
+            "(" + OBJECT_DESCRIPTOR + ")" + OBJECT_DESCRIPTOR);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(bytes);
+        for (Map.Entry<Field, CopyAction> entry : fields.entrySet()) {
+            if (entry.getValue() != CopyAction.SKIP) {
+                copyField(code, entry.getKey().getType(), longConstant(offsets.applyAsLong(entry.getKey())), entry.getValue());
+            }
+        }
+        code.writeByte(RETURN);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Generates code which copies single field.
+     *
+     * @param code code
+     * @param type field type
+     * @param offset index of the field offset constant
+     * @param action copy action
+     * @throws IOException never
+     */
+    private void copyField(DataOutputStream code, Class<?> type, int offset, CopyAction action) throws IOException {
+        String typeName = type.getName();
+        String suffix = type.isPrimitive() ? Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1) : "Object";
+        String descriptor = type.isPrimitive() ? primitiveDescriptor(type) : OBJECT_DESCRIPTOR;
+        int valueSize = type == long.class || type == double.class ? 2 : 1;
+        boolean deep = action == CopyAction.DEFAULT && !type.isPrimitive();
+
+        // UNSAFE.putXxx(clone, offset, ...
+        code.writeByte(GETSTATIC);
+        code.writeShort(unsafe);
+        code.writeByte(ALOAD_2);
+        code.writeByte(LDC2_W);
+        code.writeShort(offset);
+        if (action == CopyAction.NULL) {
+            code.writeByte(ACONST_NULL);
+        }
+        else {
+            if (deep) {
+                code.writeByte(ALOAD_3);
+            }
+            // UNSAFE.getXxx(original, offset)
+            code.writeByte(GETSTATIC);
+            code.writeShort(unsafe);
+            code.writeByte(ALOAD_1);
+            code.writeByte(LDC2_W);
+            code.writeShort(offset);
+            invokeInterface(code, memberRef(INTERFACE_METHOD_REF, unsafeClass, "get" + suffix,
+                "(" + OBJECT_DESCRIPTOR + "J)" + descriptor), ACCESSOR_SLOTS);
+            if (deep) {
+                // context.copy(value)
+                invokeInterface(code, contextCopy, 2);
+            }
+        }
+        // ... value)
+        invokeInterface(code, memberRef(INTERFACE_METHOD_REF, unsafeClass, "put" + suffix,
+            "(" + OBJECT_DESCRIPTOR + "J" + descriptor + ")V"), ACCESSOR_SLOTS + valueSize);
+    }
+
+    /**
+     * Writes {@code invokeinterface} instruction.
+     *
+     * @param code code
+     * @param method method index
+     * @param count number of argument slots including {@code this}
+     * @throws IOException never
+     */
+    private static void invokeInterface(DataOutputStream code, int method, int count) throws IOException {
+        code.writeByte(INVOKEINTERFACE);
+        code.writeShort(method);
+        code.writeByte(count);
+        code.writeByte(0);
+    }
+
+    /**
+     * Returns descriptor of the primitive type.
+     *
+     * @param type primitive type
+     * @return descriptor
+     */
+    private static String primitiveDescriptor(Class<?> type) {
+        if (type == boolean.class) {
+            return "Z";
+        }
+        if (type == long.class) {
+            return "J";
+        }
+        return String.valueOf(Character.toUpperCase(type.getName().charAt(0)));
+    }
+
+    /**
+     * Writes method.
+     *
+     * @param name method name
+     * @param descriptor method descriptor
+     * @param maxStack maximal depth of the operand stack
+     * @param maxLocals number of local variables
+     * @param code method code
+     * @return method bytes
+     * @throws IOException never
+     */
+    private byte[] method(String name, String descriptor, int maxStack, int maxLocals, byte[] code) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(utf8(name));
+        out.writeShort(utf8(descriptor));
+        // attributes
+        out.writeShort(1);
+        out.writeShort(utf8("Code"));
+        out.writeInt(CODE_HEADER_SIZE + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        // exception table
+        out.writeShort(0);
+        // code attributes
+        out.writeShort(0);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns index of the UTF-8 constant.
+     *
+     * @param value value
+     * @return constant pool index
+     * @throws IOException never
+     */
+    private int utf8(String value) throws IOException {
+        Integer index = entries.get("U" + value);
+        if (index == null) {
+            index = add("U" + value, 1);
+            poolOut.writeByte(UTF8);
+            poolOut.writeUTF(value);
+        }
+        return index;
+    }
+
+    /**
+     * Returns index of the long constant.
+     *
+     * @param value value
+     * @return constant pool index
+     * @throws IOException never
+     */
+    private int longConstant(long value) throws IOException {
+        Integer index = entries.get("J" + value);
+        if (index == null) {
+            index = add("J" + value, 2);
+            poolOut.writeByte(LONG);
+            poolOut.writeLong(value);
+        }
+        return index;
+    }
+
+    /**
+     * Returns index of the class constant.
+     *
+     * @param name internal class name
+     * @return constant pool index
+     * @throws IOException never
+     */
+    private int classRef(String name) throws IOException {
+        Integer index = entries.get("C" + name);
+        if (index == null) {
+            int nameIndex = utf8(name);
+            index = add("C" + name, 1);
+            poolOut.writeByte(CLASS);
+            poolOut.writeShort(nameIndex);
+        }
+        return index;
+    }
+
+    /**
+     * Returns index of the field or method reference.
+     *
+     * @param tag constant tag
+     * @param owner owner class index
+     * @param name member name
+     * @param descriptor member descriptor
+     * @return constant pool index
+     * @throws IOException never
+     */
+    private int memberRef(int tag, int owner, String name, String descriptor) throws IOException {
+        String key = "M" + owner + ":" + name + ":" + descriptor;
+        Integer index = entries.get(key);
+        if (index == null) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = add("N" + name + ":" + descriptor, 1);
+            poolOut.writeByte(NAME_AND_TYPE);
+            poolOut.writeShort(nameIndex);
+            poolOut.writeShort(descriptorIndex);
+            index = add(key, 1);
+            poolOut.writeByte(tag);
+            poolOut.writeShort(owner);
+            poolOut.writeShort(nameAndType);
+        }
+        return index;
+    }
+
+    /**
+     * Registers constant pool entry.
+     *
+     * @param key entry key
+     * @param size number of the constant pool slots
+     * @return constant pool index
+     */
+    private int add(String key, int size) {
+        int index = nextIndex;
+        entries.put(key, index);
+        nextIndex += size;
+        return index;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+/**
+ * Profile of the values of a reference field. While profiling, it records the classes of the values and copies them
+ * with {@link InlineCopierCache}. The profile is cheap and approximate, it is updated without synchronization.
+ * After profiling, {@link #specialize(CopyContext)} returns the value copier specialized on the profile.
+ *
+ * @author Maxim Butov
+ */
+final class FieldProfile implements ObjectCopier<Object> {
+
+    /**
+     * Generic copier of the values.
+     */
+    private final InlineCopierCache cache = new InlineCopierCache();
+
+    /**
+     * Class of the first non-null value, {@code null} if all the values were {@code null}.
+     */
+    private Class<?> type;
+
+    /**
+     * Whether the values of different classes were observed.
+     */
+    private boolean polymorphic;
+
+    @Override
+    public Object copy(Object original, CopyContext context) throws Exception {
+        if (original != null) {
+            Class<?> type = original.getClass();
+            if (this.type == null) {
+                this.type = type;
+            }
+            else if (this.type != type) {
+                polymorphic = true;
+            }
+        }
+        return cache.copy(original, context);
+    }
+
+    /**
+     * Returns the value copier specialized on the profile: the guard of the only observed class or of {@code null},
+     * or the generic copier if the field is polymorphic or the copier of the observed class depends on the object.
+     *
+     * @param context copying context, which provides the copiers of the types
+     * @return value copier
+     */
+    @SuppressWarnings("unchecked")
+    ObjectCopier<Object> specialize(CopyContext context) {
+        if (polymorphic) {
+            return cache;
+        }
+        if (type == null) {
+            return new Guard(null, null, cache);
+        }
+        ObjectCopier<Object> copier = context.getTypeCopier((Class<Object>) type);
+        return copier != null ? new Guard(type, copier, cache) : cache;
+    }
+
+    /**
+     * Value copier which copies {@code null} and the values of the expected class without the copier lookup.
+     * The other values are copied with the fallback copier. The counter of the misses is approximate.
+     */
+    static final class Guard implements ObjectCopier<Object> {
+
+        /**
+         * Expected class of the values, {@code null} if only {@code null} values are expected.
+         */
+        private final Class<?> expected;
+
+        /**
+         * Copier of the values of the expected class.
+         */
+        private final ObjectCopier<Object> copier;
+
+        /**
+         * Copier of the unexpected values.
+         */
+        private final ObjectCopier<Object> fallback;
+
+        /**
+         * Number of the unexpected values.
+         */
+        private long misses;
+
+        /**
+         * Creates guard.
+         *
+         * @param expected expected class of the values or {@code null}
+         * @param copier copier of the values of the expected class
+         * @param fallback copier of the unexpected values
+         */
+        Guard(Class<?> expected, ObjectCopier<Object> copier, ObjectCopier<Object> fallback) {
+            this.expected = expected;
+            this.copier = copier;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object copy(Object original, CopyContext context) throws Exception {
+            if (original == null) {
+                return null;
+            }
+            if (original.getClass() == expected) {
+                return copier == ObjectCopier.NOOP ? original : context.copy(original, copier);
+            }
+            misses++;
+            return fallback.copy(original, context);
+        }
+
+        /**
+         * Returns the number of the unexpected values.
+         *
+         * @return number of the unexpected values
+         */
+        long getMisses() {
+            return misses;
+        }
+
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy context for parallel copying in {@link ForkJoinPool}. Unlike {@link ParallelCopyContext}, it does not submit
+ * a task per object. Every worker processes a local batch of the delayed actions (in depth-first order) and forks
+ * a part of the batch only when the pool lacks queued work, so, the idle workers can steal it. Completion of the batches
+ * is tracked with {@link CountedCompleter}.
+ *
+ * @author Maxim Butov
+ */
+public class ForkJoinCopyContext extends AbstractCopyContext {
+
+    /**
+     * A batch is forked when the number of the surplus queued tasks of the current worker is less than this value.
+     */
+    private static final int SURPLUS_THRESHOLD = 3;
+
+    /**
+     * Batch which is processed by the current thread.
+     */
+    private static final ThreadLocal<CopyTask> CURRENT_TASK = new ThreadLocal<>();
+
+    /**
+     * Fork-join pool.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Actions which are delayed before the start of {@link #complete()}.
+     */
+    private final Deque<Callable<?>> initialBatch = new ArrayDeque<>();
+
+    /**
+     * The first exception thrown by an action.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Split threshold.
+     */
+    private final int splitThreshold;
+
+    /**
+     * Creates an instance with the default split threshold.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(java.util.Map)}
+     * @param pool fork-join pool
+     */
+    public ForkJoinCopyContext(CopierProvider copierProvider, CloneTable predefined, ForkJoinPool pool) {
+        this(copierProvider, predefined, pool, DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(java.util.Map)}
+     * @param pool fork-join pool
+     * @param splitThreshold split threshold, see {@link #getSplitThreshold()}
+     */
+    public ForkJoinCopyContext(CopierProvider copierProvider, CloneTable predefined, ForkJoinPool pool,
+        int splitThreshold) {
+        super(copierProvider, predefined, ConcurrentCloneTable::new);
+        this.pool = pool;
+        this.splitThreshold = splitThreshold;
+    }
+
+    @Override
+    public int getSplitThreshold() {
+        return splitThreshold;
+    }
+
+    @Override
+    public void thenInvoke(Callable<?> task) throws Exception {
+        CopyTask current = CURRENT_TASK.get();
+        if (current != null && current.getContext() == this) {
+            current.batch.addLast(task);
+        }
+        else {
+            synchronized (initialBatch) {
+                initialBatch.addLast(task);
+            }
+        }
+    }
+
+    @Override
+    public void complete() throws Throwable {
+        Deque<Callable<?>> batch;
+        synchronized (initialBatch) {
+            batch = new ArrayDeque<>(initialBatch);
+            initialBatch.clear();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            pool.invoke(new CopyTask(null, batch));
+        }
+        catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+        Throwable e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Task which processes a batch of the delayed actions.
+     */
+    private final class CopyTask extends CountedCompleter<Void> {
+
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Delayed actions.
+         */
+        private final Deque<Callable<?>> batch;
+
+        /**
+         * Creates a task.
+         *
+         * @param parent parent task, nullable
+         * @param batch delayed actions
+         */
+        CopyTask(CopyTask parent, Deque<Callable<?>> batch) {
+            super(parent);
+            this.batch = batch;
+        }
+
+        /**
+         * Returns the owning context.
+         *
+         * @return context
+         */
+        ForkJoinCopyContext getContext() {
+            return ForkJoinCopyContext.this;
+        }
+
+        @Override
+        public void compute() {
+            CopyTask previous = CURRENT_TASK.get();
+            CURRENT_TASK.set(this);
+            try {
+                Deque<Callable<?>> batch = this.batch;
+                for (Callable<?> next; failure.get() == null && (next = batch.pollLast()) != null; ) {
+                    next.call();
+                    if (batch.size() > 1 && ForkJoinTask.getSurplusQueuedTaskCount() < SURPLUS_THRESHOLD) {
+                        fork(batch);
+                    }
+                }
+            }
+            catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+            finally {
+                CURRENT_TASK.set(previous);
+            }
+            tryComplete();
+        }
+
+        /**
+         * Forks the older half of the batch, these actions are usually the roots of the largest subgraphs.
+         *
+         * @param batch batch
+         */
+        private void fork(Deque<Callable<?>> batch) {
+            Deque<Callable<?>> forked = new ArrayDeque<>();
+            for (int count = batch.size() >> 1; count > 0; count--) {
+                forked.addLast(batch.pollFirst());
+            }
+            addToPendingCount(1);
+            new CopyTask(this, forked).fork();
+        }
+
+    }
+
+}
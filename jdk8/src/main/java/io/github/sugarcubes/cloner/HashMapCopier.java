@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copier for {@link java.util.HashMap}, {@link java.util.LinkedHashMap}, {@link java.util.Hashtable},
+ * {@link java.util.concurrent.ConcurrentHashMap} and {@link java.util.concurrent.ConcurrentSkipListMap}.
+ * When the keys are not changed by copying, the table of the clone is kept, and the values are replaced in place,
+ * so, neither the nodes of the map are copied reflectively, nor the keys are rehashed.
+ * The entries of {@link java.util.concurrent.ConcurrentSkipListMap} do not support {@link Map.Entry#setValue(Object)},
+ * so, the values of the concurrent maps are replaced with {@link Map#put(Object, Object)}. The concurrent maps and
+ * {@link java.util.Hashtable} do not allow {@code null} values, so, their entries whose values are copied to {@code null}
+ * are removed.
+ *
+ * @author Maxim Butov
+ */
+public class HashMapCopier<T extends Map<Object, Object>> extends AbstractHashCopier<T> {
+
+    /**
+     * Creates copier.
+     *
+     * @param shallowCopy shallow copy function
+     * @param fallback copier which is used when any of the keys is changed by copying
+     */
+    public HashMapCopier(UnaryOperator<T> shallowCopy, TwoPhaseObjectCopier<T> fallback) {
+        super(shallowCopy, fallback);
+    }
+
+    @Override
+    public void deepCopy(T original, T clone, CopyContext context) throws Exception {
+        copyKeys(keys(clone), original, clone, context, () -> {
+            copyValues(clone, context);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the keys of the clone. The keys of the concurrent maps are collected with {@link Map#forEach}, because
+     * {@link Map#keySet()} caches the view in the map, and the view would refer to the clone when the clone is copied
+     * field by field.
+     *
+     * @param clone clone
+     * @return keys
+     */
+    private static Collection<Object> keys(Map<Object, Object> clone) {
+        if (clone instanceof ConcurrentMap) {
+            List<Object> keys = new ArrayList<>(clone.size());
+            clone.forEach((key, value) -> keys.add(key));
+            return keys;
+        }
+        return clone.keySet();
+    }
+
+    /**
+     * Replaces the values of the clone with their copies.
+     *
+     * @param clone clone
+     * @param context copying context
+     * @throws Exception if something went wrong
+     */
+    private static void copyValues(Map<Object, Object> clone, CopyContext context) throws Exception {
+        if (clone instanceof ConcurrentMap || clone instanceof Hashtable) {
+            copyNonNullValues(clone, context);
+            return;
+        }
+        if (clone.size() <= context.getSplitThreshold()) {
+            for (Map.Entry<Object, Object> entry : clone.entrySet()) {
+                entry.setValue(context.copy(entry.getValue()));
+            }
+            return;
+        }
+        Object[] values = clone.values().toArray();
+        copyElements(values, values, context, () -> {
+            int index = 0;
+            for (Map.Entry<Object, Object> entry : clone.entrySet()) {
+                entry.setValue(values[index++]);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Replaces the values of the clone which does not allow {@code null} values with their copies. The entries whose
+     * values are copied to {@code null} are removed.
+     *
+     * @param clone clone
+     * @param context copying context
+     * @throws Exception if something went wrong
+     */
+    private static void copyNonNullValues(Map<Object, Object> clone, CopyContext context) throws Exception {
+        Object[] keys = new Object[clone.size()];
+        Object[] values = new Object[keys.length];
+        int index = 0;
+        for (Map.Entry<Object, Object> entry : clone.entrySet()) {
+            keys[index] = entry.getKey();
+            values[index++] = entry.getValue();
+        }
+        copyElements(values, values, context, () -> {
+            for (int k = 0; k < keys.length; k++) {
+                if (values[k] != null) {
+                    clone.put(keys[k], values[k]);
+                }
+                else {
+                    clone.remove(keys[k]);
+                }
+            }
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Copier for {@link java.util.HashSet}, {@link java.util.LinkedHashSet} and {@link java.util.concurrent.ConcurrentSkipListSet}.
+ * When the elements are not changed by copying, the shallow clone of the set is the result.
+ *
+ * @author Maxim Butov
+ */
+public class HashSetCopier<T extends Set<Object>> extends AbstractHashCopier<T> {
+
+    /**
+     * Creates copier.
+     *
+     * @param shallowCopy shallow copy function
+     * @param fallback copier which is used when any of the elements is changed by copying
+     */
+    public HashSetCopier(UnaryOperator<T> shallowCopy, TwoPhaseObjectCopier<T> fallback) {
+        super(shallowCopy, fallback);
+    }
+
+    @Override
+    public void deepCopy(T original, T clone, CopyContext context) throws Exception {
+        copyKeys(clone, original, clone, context, null);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Copy context which uses recursion up to the specified depth. Deeper tasks are put into the queue and completed
+ * after the recursion unwinds, every task from the queue may recurse up to the same depth again. So, the context
+ * copies shallow graphs as fast as {@link RecursiveCopyContext}, and never overflows the stack on deep graphs,
+ * like {@link SequentialCopyContext}.
+ *
+ * @author Maxim Butov
+ */
+public class HybridCopyContext extends AbstractSingleThreadCopyContext {
+
+    /**
+     * Default maximal depth of the recursion.
+     */
+    public static final int DEFAULT_RECURSION_DEPTH = 256;
+
+    /**
+     * Maximal depth of the recursion.
+     */
+    private final int recursionDepth;
+
+    /**
+     * Queue of the tasks which are deeper than {@link #recursionDepth}.
+     */
+    private final CopyTaskQueue queue = new CopyTaskQueue(true);
+
+    /**
+     * Current depth of the recursion.
+     */
+    private int depth;
+
+    /**
+     * Maximal depth of the recursion since the last {@link #reset()}.
+     */
+    private int maxDepth;
+
+    /**
+     * Creates an instance with the default recursion depth.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     */
+    public HybridCopyContext(CopierProvider copierProvider, CloneTable predefined) {
+        this(copierProvider, predefined, DEFAULT_RECURSION_DEPTH);
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     * @param recursionDepth maximal depth of the recursion
+     */
+    public HybridCopyContext(CopierProvider copierProvider, CloneTable predefined, int recursionDepth) {
+        super(copierProvider, predefined);
+        this.recursionDepth = recursionDepth;
+    }
+
+    @Override
+    public void thenInvoke(Callable<?> task) throws Exception {
+        if (depth < recursionDepth) {
+            enter();
+            task.call();
+            depth--;
+        }
+        else {
+            queue.offer(task);
+        }
+    }
+
+    @Override
+    public <T> void thenCopy(TwoPhaseObjectCopier<T> copier, T original, T clone) throws Exception {
+        if (depth < recursionDepth) {
+            enter();
+            copier.deepCopy(original, clone, this);
+            depth--;
+        }
+        else {
+            queue.offer(copier, original, clone);
+        }
+    }
+
+    /**
+     * Increments the depth of the recursion.
+     */
+    private void enter() {
+        if (++depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    @Override
+    public void complete() throws Throwable {
+        CopyTaskQueue queue = this.queue;
+        while (!queue.isEmpty()) {
+            queue.runNext(this);
+        }
+    }
+
+    @Override
+    public void presize(int objects, int tasks) {
+        super.presize(objects, tasks);
+        queue.ensureCapacity(tasks);
+    }
+
+    /**
+     * Returns the maximal number of the delayed tasks since the last {@link #reset()}.
+     *
+     * @return high-water mark of the queue
+     */
+    public int getMaxQueueSize() {
+        return queue.getMaxSize();
+    }
+
+    /**
+     * Returns the maximal depth of the recursion since the last {@link #reset()}. The depth is equal to
+     * the recursion depth limit if some tasks have been queued.
+     *
+     * @return maximal depth of the recursion
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public boolean reset() {
+        queue.clear();
+        depth = 0;
+        maxDepth = 0;
+        return super.reset();
+    }
+
+}
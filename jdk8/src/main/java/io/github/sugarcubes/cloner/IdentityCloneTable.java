@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.Arrays;
+
+/**
+ * Single-thread clone table. Uses open addressing with linear probing over the parallel arrays of keys and values,
+ * hashed by {@link System#identityHashCode(Object)}. Unlike {@link java.util.IdentityHashMap} or a map of
+ * {@link IdentityReference}s, putting an entry allocates nothing, except for the occasional resizing.
+ *
+ * @author Maxim Butov
+ */
+final class IdentityCloneTable implements CloneTable {
+
+    /**
+     * Initial capacity, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Maximal capacity which is kept by {@link #clear()}. A bigger table is released, so a single large graph
+     * does not pin the memory of a reused table.
+     */
+    static final int MAX_RETAINED_CAPACITY = 1024;
+
+    /**
+     * Multiplier for Fibonacci hashing, the integer part of {@code 2^32 / phi}.
+     */
+    private static final int HASH_MULTIPLIER = 0x9e3779b9;
+
+    /**
+     * Original objects.
+     */
+    private Object[] keys;
+
+    /**
+     * Clones, {@code values[i]} is the clone of {@code keys[i]}.
+     */
+    private Object[] values;
+
+    /**
+     * Shift of the hash to get the index in the table.
+     */
+    private int shift;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Creates an empty table.
+     */
+    IdentityCloneTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Allocates arrays for the specified capacity.
+     *
+     * @param capacity capacity, power of two
+     */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    /**
+     * Returns the index of the first probe for the key.
+     *
+     * @param key key
+     * @return index
+     */
+    private int index(Object key) {
+        return System.identityHashCode(key) * HASH_MULTIPLIER >>> shift;
+    }
+
+    @Override
+    public Object get(Object original) {
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        for (int index = index(original); ; index = (index + 1) & mask) {
+            Object key = keys[index];
+            if (key == original) {
+                return values[index];
+            }
+            if (key == null) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void put(Object original, Object clone) {
+        Object[] keys = this.keys;
+        int mask = keys.length - 1;
+        int index = index(original);
+        while (keys[index] != null && keys[index] != original) {
+            index = (index + 1) & mask;
+        }
+        if (keys[index] == null) {
+            keys[index] = original;
+            size++;
+        }
+        values[index] = clone;
+        if (size > keys.length >> 1) {
+            resize();
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        if (size == 0 && expectedSize > keys.length >> 1) {
+            allocate(Integer.highestOneBit((expectedSize << 1) - 1) << 1);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (keys.length > MAX_RETAINED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        }
+        else if (size != 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the capacity of the table.
+     *
+     * @return capacity
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Doubles the capacity of the table, keeps the load factor not greater than 0.5.
+     */
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int oldIndex = 0; oldIndex < oldKeys.length; oldIndex++) {
+            Object key = oldKeys[oldIndex];
+            if (key != null) {
+                int index = index(key);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[oldIndex];
+            }
+        }
+    }
+
+}
@@ -35,9 +35,24 @@ public class IdentityHashMapCopier extends TwoPhaseObjectCopier<IdentityHashMap<
     @Override
     public void deepCopy(IdentityHashMap<Object, Object> original, IdentityHashMap<Object, Object> clone, CopyContext context)
         throws Exception {
+        if (original.size() <= context.getSplitThreshold()) {
+            for (Map.Entry<Object, Object> entry : original.entrySet()) {
+                clone.put(context.copy(entry.getKey()), context.copy(entry.getValue()));
+            }
+            return;
+        }
+        Object[] entries = new Object[original.size() << 1];
+        int index = 0;
         for (Map.Entry<Object, Object> entry : original.entrySet()) {
-            clone.put(context.copy(entry.getKey()), context.copy(entry.getValue()));
+            entries[index++] = entry.getKey();
+            entries[index++] = entry.getValue();
         }
+        copyElements(entries, entries, context, () -> {
+            for (int k = 0; k < entries.length; k += 2) {
+                clone.put(entries[k], entries[k + 1]);
+            }
+            return null;
+        });
     }
 
 }
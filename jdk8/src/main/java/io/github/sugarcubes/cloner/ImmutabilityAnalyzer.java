@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Analyzer which infers deep immutability of types. The instances of a type are deeply immutable, if all the
+ * non-static fields of the type and its super types are final, and each field is either primitive, or has the type,
+ * which is final and deeply immutable itself. So, records with immutable components, final value classes and
+ * value-based JDK classes (like {@link java.time.LocalDate}) are immutable, and a field of a non-final type
+ * (e.g. {@link Object} or {@link java.util.List}) makes the type mutable. The types from
+ * {@link JdkConfiguration#getImmutableTypes()} and enums are immutable by definition.
+ * <p>
+ * The results of the inference are cached and can be inspected with {@link #getResults()}.
+ *
+ * @author Maxim Butov
+ * @see ReflectionClonerBuilder#inferImmutability()
+ */
+public class ImmutabilityAnalyzer {
+
+    /**
+     * Types which are known to be immutable.
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = JdkConfigurationHolder.CONFIGURATION.getImmutableTypes();
+
+    /**
+     * Results of the inference.
+     */
+    private final Map<Class<?>, Boolean> results = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an instance.
+     */
+    public ImmutabilityAnalyzer() {
+    }
+
+    /**
+     * Checks whether the instances of the type (exactly of this type, not subtypes) are deeply immutable.
+     *
+     * @param type type
+     * @return {@code true} if instances of the type are deeply immutable
+     */
+    public boolean isImmutable(Class<?> type) {
+        Checks.argNotNull(type, "Type");
+        Boolean result = results.get(type);
+        if (result == null) {
+            Set<Class<?>> visited = new HashSet<>();
+            result = analyze(type, visited);
+            if (result) {
+                // all the visited types are immutable
+                visited.forEach(visitedType -> results.put(visitedType, true));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the results of the inference made so far.
+     *
+     * @return map (type, immutable)
+     */
+    public Map<Class<?>, Boolean> getResults() {
+        return Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * Infers immutability of the type. The types which are being analyzed are assumed to be immutable, so, the
+     * positive result is reliable only when the analysis of the initial type completes. Negative result is always
+     * reliable and is cached immediately.
+     *
+     * @param type type
+     * @param visited types which are being analyzed or have been analyzed in the current inference
+     * @return {@code true} if the type is immutable
+     */
+    private boolean analyze(Class<?> type, Set<Class<?>> visited) {
+        Boolean result = results.get(type);
+        if (result != null) {
+            return result;
+        }
+        if (type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type) || !visited.add(type)) {
+            return true;
+        }
+        if (type.isArray() || type.isInterface() || !hasImmutableFields(type, visited)) {
+            results.put(type, false);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that all the non-static fields of the type, including the fields of the super types, are immutable.
+     *
+     * @param type type
+     * @param visited types which are being analyzed or have been analyzed in the current inference
+     * @return {@code true} if all the fields are immutable
+     */
+    private boolean hasImmutableFields(Class<?> type, Set<Class<?>> visited) {
+        for (Class<?> t = type; t != null && t != Object.class; t = t.getSuperclass()) {
+            for (Field field : t.getDeclaredFields()) {
+                if (ReflectionUtils.isNonStatic(field) && !isImmutable(field, visited)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the field is final and its value is deeply immutable.
+     *
+     * @param field non-static field
+     * @param visited types which are being analyzed or have been analyzed in the current inference
+     * @return {@code true} if the field is immutable
+     */
+    private boolean isImmutable(Field field, Set<Class<?>> visited) {
+        Class<?> type = field.getType();
+        return Modifier.isFinal(field.getModifiers()) &&
+            (type.isPrimitive() || Modifier.isFinal(type.getModifiers()) || type.isEnum()) &&
+            analyze(type, visited);
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Copier for the JDK immutable collections, e.g. the collections created with {@code List.of()}, {@code Set.of()},
+ * {@code Map.of()} or {@link java.util.Collections#singletonList(Object)}. If all the elements (keys and values
+ * for the maps) are copied by reference, i.e. their copier is {@link ObjectCopier#NOOP}, or they are immutable collections
+ * of such elements, then the original collection is the clone. The copy context checks it before the lookup in the table
+ * of the clones, so, such collections are neither registered nor looked up, like the objects copied by reference.
+ * Otherwise, the collection of the same type with the copies of the elements is created by {@link #fallback} copier,
+ * which also handles the cyclic references between the collection and its elements.
+ *
+ * @author Maxim Butov
+ */
+public final class ImmutableCollectionCopier<T> implements ObjectCopier<T> {
+
+    /**
+     * Copier which is used when any of the elements is not copied by reference.
+     */
+    private final ObjectCopier<T> fallback;
+
+    /**
+     * Creates copier.
+     *
+     * @param fallback copier which is used when any of the elements is not copied by reference
+     */
+    public ImmutableCollectionCopier(ObjectCopier<T> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public T copy(T original, CopyContext context) throws Exception {
+        return fallback.copy(original, context);
+    }
+
+    /**
+     * Checks whether all the elements of the collection are copied by reference.
+     *
+     * @param collection immutable collection
+     * @param copierProvider copier provider, which provides copiers for the elements
+     * @return {@code true} if the collection can be copied by reference
+     */
+    static boolean isUnchanged(Object collection, CopierProvider copierProvider) {
+        if (collection instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) collection).entrySet()) {
+                if (!isElementUnchanged(entry.getKey(), copierProvider) || !isElementUnchanged(entry.getValue(), copierProvider)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (Object element : (Collection<?>) collection) {
+            if (!isElementUnchanged(element, copierProvider)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the element is copied by reference.
+     *
+     * @param element element
+     * @param copierProvider copier provider
+     * @return {@code true} if the element is copied by reference
+     */
+    private static boolean isElementUnchanged(Object element, CopierProvider copierProvider) {
+        if (element == null) {
+            return true;
+        }
+        ObjectCopier<?> copier = copierProvider.getCopier(element);
+        if (copier == ObjectCopier.NOOP) {
+            return true;
+        }
+        return copier instanceof ImmutableCollectionCopier && isUnchanged(element, copierProvider);
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Inline cache of the copier for a single place in code, usually, a reference field. If the class of the copied object
+ * is the same as the class of the object copied previously at this place, the copier is taken from the cache, and
+ * the lookup in the copier provider is skipped. If the classes change too often, the cache stops replacing its entry.
+ * The cache is not synchronized: the entry is immutable, and a race may only cause an extra lookup.
+ * The copier plans are shared by the cloners (see {@link CopierPlanCache}), so, the entry is valid only for the contexts
+ * of the copier provider which has returned the copier. The provider is referenced weakly, the cached copiers
+ * must not keep the cloner alive.
+ *
+ * @author Maxim Butov
+ */
+final class InlineCopierCache implements ObjectCopier<Object> {
+
+    /**
+     * Number of the misses after which the entry is not replaced anymore.
+     */
+    private static final int MAX_MISSES = 8;
+
+    /**
+     * Cached class and copier, nullable.
+     */
+    private Entry entry;
+
+    /**
+     * Number of the misses so far.
+     */
+    private int misses;
+
+    /**
+     * Copies the object with the cached copier, if the cache contains the copier for the class of the object,
+     * otherwise, with {@link CopyContext#copy(Object)}.
+     *
+     * @param original original object
+     * @param context copying context
+     * @return clone
+     * @throws Exception if something went wrong
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object copy(Object original, CopyContext context) throws Exception {
+        if (original == null) {
+            return null;
+        }
+        Entry entry = this.entry;
+        if (entry != null && entry.type == original.getClass() && entry.owner.get() == context.getCopierProvider()) {
+            return context.copy(original, (ObjectCopier<Object>) entry.copier);
+        }
+        return miss(original, context);
+    }
+
+    /**
+     * Handles the cache miss.
+     *
+     * @param <T> object type
+     * @param original original object
+     * @param context copying context
+     * @return clone
+     * @throws Exception if something went wrong
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T miss(T original, CopyContext context) throws Exception {
+        if (misses < MAX_MISSES) {
+            misses++;
+            Class<T> type = (Class<T>) original.getClass();
+            ObjectCopier<T> copier = context.getTypeCopier(type);
+            if (copier != null) {
+                entry = new Entry(type, copier, context.getCopierProvider());
+                return context.copy(original, copier);
+            }
+            // the copiers depend on the objects, nothing to cache
+            misses = MAX_MISSES;
+        }
+        return context.copy(original);
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static final class Entry {
+
+        /**
+         * Object class.
+         */
+        final Class<?> type;
+
+        /**
+         * Copier of the objects of the class.
+         */
+        final ObjectCopier<?> copier;
+
+        /**
+         * Copier provider which has returned the copier.
+         */
+        final WeakReference<CopierProvider> owner;
+
+        /**
+         * Creates entry.
+         *
+         * @param type object class
+         * @param copier copier of the objects of the class
+         * @param owner copier provider which has returned the copier
+         */
+        Entry(Class<?> type, ObjectCopier<?> copier, CopierProvider owner) {
+            this.type = type;
+            this.copier = copier;
+            this.owner = new WeakReference<>(owner);
+        }
+
+    }
+
+}
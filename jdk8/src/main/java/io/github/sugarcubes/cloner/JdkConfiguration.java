@@ -16,6 +16,7 @@
 package io.github.sugarcubes.cloner;
 
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Interface for obtaining specific classes/objects from JDK implementation.
@@ -44,6 +45,13 @@ interface JdkConfiguration {
      */
     Set<Class<?>> getCloneableTypes();
 
+    /**
+     * Returns immutable collection types, see {@link ImmutableCollectionCopier}.
+     *
+     * @return set of immutable collection types
+     */
+    Set<Class<?>> getImmutableCollectionTypes();
+
     /**
      * Returns system-wide JDK singletons.
      *
@@ -66,6 +74,15 @@ interface JdkConfiguration {
      */
     UnsafeBridge getUnsafe();
 
+    /**
+     * Defines a hidden (anonymous) class in the cloner's package. The class is not visible to class loaders and can be
+     * unloaded when it is not used anymore.
+     *
+     * @param bytecode class bytecode
+     * @return class
+     */
+    Class<?> defineHiddenClass(byte[] bytecode);
+
     /**
      * Tries to make class accessible from cloner.
      *
@@ -73,4 +90,16 @@ interface JdkConfiguration {
      */
     void makeAccessible(Class<?> type);
 
+    /**
+     * Returns supplier of the contexts which copy in virtual threads.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects
+     * @param splitThreshold split threshold, see {@link CopyContext#getSplitThreshold()}
+     * @return context supplier
+     * @throws IllegalArgumentException if virtual threads are not supported by the JDK
+     */
+    Supplier<? extends AbstractCopyContext> getVirtualThreadContextSupplier(CopierProvider copierProvider,
+        CloneTable predefined, int splitThreshold);
+
 }
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Set;
 import java.util.Spliterators;
+import java.util.function.Supplier;
 
 /**
  * Implementation of {@link JdkConfiguration} for JDK 8+.
@@ -70,6 +71,15 @@ class JdkConfigurationImpl$Jdk8 implements JdkConfiguration {
         java.text.SimpleDateFormat.class
     ));
 
+    /**
+     * JDK immutable collection types.
+     */
+    protected final Set<Class<?>> immutableCollectionTypes = new HashSet<>(Arrays.asList(
+        Collections.singleton(null).getClass(),
+        Collections.singletonList(null).getClass(),
+        Collections.singletonMap(null, null).getClass()
+    ));
+
     /**
      * System wide singletons.
      */
@@ -106,6 +116,11 @@ class JdkConfigurationImpl$Jdk8 implements JdkConfiguration {
         return Collections.unmodifiableSet(cloneableTypes);
     }
 
+    @Override
+    public Set<Class<?>> getImmutableCollectionTypes() {
+        return Collections.unmodifiableSet(immutableCollectionTypes);
+    }
+
     @Override
     public Set<Object> getSystemWideSingletons() {
         return Collections.unmodifiableSet(systemWideSingletons);
@@ -125,9 +140,20 @@ class JdkConfigurationImpl$Jdk8 implements JdkConfiguration {
         return new SunMiscUnsafeBridge();
     }
 
+    @Override
+    public Class<?> defineHiddenClass(byte[] bytecode) {
+        return getUnsafe().defineAnonymousClass(JdkConfigurationImpl$Jdk8.class, bytecode, null);
+    }
+
     @Override
     public void makeAccessible(Class<?> type) {
         // good old Java 8, nothing to do
     }
 
+    @Override
+    public Supplier<? extends AbstractCopyContext> getVirtualThreadContextSupplier(CopierProvider copierProvider,
+        CloneTable predefined, int splitThreshold) {
+        throw Checks.illegalArg("Virtual threads require JDK 21+.");
+    }
+
 }
@@ -33,9 +33,7 @@ public class ObjectArrayCopier extends TwoPhaseObjectCopier<Object[]> {
 
     @Override
     public void deepCopy(Object[] original, Object[] clone, CopyContext context) throws Exception {
-        for (int k = 0, length = original.length; k < length; k++) {
-            clone[k] = context.copy(original[k]);
-        }
+        copyElements(original, clone, context, null);
     }
 
 }
@@ -31,10 +31,11 @@ public class ObjenesisObjectFactoryProvider implements ObjectFactoryProvider {
     private final Objenesis objenesis;
 
     /**
-     * Default constructor.
+     * Default constructor. The instantiators are not cached by Objenesis: the factories are cached by the copiers,
+     * and the cache of Objenesis would prevent the classes from being unloaded.
      */
     public ObjenesisObjectFactoryProvider() {
-        this(new ObjenesisStd());
+        this(new ObjenesisStd(false));
     }
 
     /**
@@ -18,7 +18,6 @@ package io.github.sugarcubes.cloner;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -47,28 +46,59 @@ public class ParallelCopyContext extends AbstractCopyContext {
     private volatile boolean running = true;
 
     /**
-     * Creates an instance.
+     * Split threshold.
+     */
+    private final int splitThreshold;
+
+    /**
+     * Creates an instance with the default split threshold.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     * @param executor executor service
+     */
+    public ParallelCopyContext(CopierProvider copierProvider, CloneTable predefined, ExecutorService executor) {
+        this(copierProvider, predefined, executor, DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Creates an instance with the default split threshold.
      *
      * @param copierProvider copier provider
      * @param clones predefined cloned objects
      * @param executor executor service
+     * @deprecated use {@link #ParallelCopyContext(CopierProvider, CloneTable, ExecutorService)}
+     * with {@link #predefinedClones(Map)}, which builds the table once
      */
+    @Deprecated
     public ParallelCopyContext(CopierProvider copierProvider, Map<Object, Object> clones, ExecutorService executor) {
-        super(copierProvider, ConcurrentHashMap::new, clones);
+        this(copierProvider, predefinedClones(clones), executor);
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     * @param executor executor service
+     * @param splitThreshold split threshold, see {@link #getSplitThreshold()}
+     */
+    public ParallelCopyContext(CopierProvider copierProvider, CloneTable predefined, ExecutorService executor,
+        int splitThreshold) {
+        super(copierProvider, predefined, ConcurrentCloneTable::new);
         this.executor = executor;
+        this.splitThreshold = splitThreshold;
     }
 
     @Override
-    public void thenInvoke(Callable<?> task) throws Exception {
-        if (running) {
-            futures.offer(executor.submit(task));
-        }
+    public int getSplitThreshold() {
+        return splitThreshold;
     }
 
     @Override
-    protected <T> T doClone(T original, ObjectCopier<T> copier) throws Exception {
-        synchronized (original) {
-            return super.doClone(original, copier);
+    public void thenInvoke(Callable<?> task) throws Exception {
+        if (running) {
+            futures.offer(executor.submit(task));
         }
     }
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Metrics of the profile-guided specialization of the copiers, see {@link ReflectionClonerBuilder#profile(int, ProfileMetrics)}.
+ * The counters are cheap and approximate, they are updated without synchronization.
+ *
+ * @author Maxim Butov
+ */
+public final class ProfileMetrics {
+
+    /**
+     * Specialized copiers, in the order of specialization.
+     */
+    private final List<ProfilingCopier<?>> specializations = new ArrayList<>();
+
+    /**
+     * Registers the specialization event.
+     *
+     * @param copier specialized copier
+     */
+    synchronized void specialized(ProfilingCopier<?> copier) {
+        specializations.add(copier);
+    }
+
+    /**
+     * Returns the types whose copiers have been specialized.
+     *
+     * @return specialized types
+     */
+    public synchronized Set<Class<?>> getSpecializedTypes() {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        specializations.forEach(copier -> types.add(copier.getType()));
+        return Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Returns the number of the specialization events.
+     *
+     * @return number of the specialization events
+     */
+    public synchronized int getSpecializationCount() {
+        return specializations.size();
+    }
+
+    /**
+     * Returns the number of the guards of all the specialized copiers.
+     *
+     * @return number of the guards
+     */
+    public synchronized int getGuardCount() {
+        return specializations.stream().mapToInt(ProfilingCopier::getGuardCount).sum();
+    }
+
+    /**
+     * Returns the number of the field values checked by the guards.
+     *
+     * @return number of the guarded values
+     */
+    public synchronized long getGuardedValues() {
+        return specializations.stream().mapToLong(ProfilingCopier::getGuardedValues).sum();
+    }
+
+    /**
+     * Returns the number of the field values which have not passed the guards and have been copied with the generic path.
+     *
+     * @return number of the guard misses
+     */
+    public synchronized long getGuardMisses() {
+        return specializations.stream().mapToLong(ProfilingCopier::getGuardMisses).sum();
+    }
+
+    /**
+     * Returns the ratio of the guard misses to the guarded field values, or 0 if there were no guarded values.
+     *
+     * @return guard miss rate
+     */
+    public synchronized double getGuardMissRate() {
+        long values = getGuardedValues();
+        return values != 0 ? (double) getGuardMisses() / values : 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ProfileMetrics[specializations=%d, guards=%d, values=%d, misses=%d]",
+            getSpecializationCount(), getGuardCount(), getGuardedValues(), getGuardMisses());
+    }
+
+}
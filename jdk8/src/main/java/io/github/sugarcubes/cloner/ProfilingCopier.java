@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copier which profiles the values of the reference fields during the first copies of the type and then rebuilds
+ * the plan of the copying, specialized on the observed classes. The specialized plan copies {@code null} and the values
+ * of the only observed class of the field without the copier lookup, the other values fall back to the generic path,
+ * see {@link FieldProfile.Guard}. The fields with values of different classes are copied with the generic path.
+ * The specialization events and the guard counters are collected in {@link ProfileMetrics}.
+ *
+ * @param <T> object type
+ * @author Maxim Butov
+ */
+final class ProfilingCopier<T> extends TwoPhaseObjectCopier<T> {
+
+    /**
+     * Object type.
+     */
+    private final Class<T> type;
+
+    /**
+     * Generic copier of the type.
+     */
+    private final ReflectionCopier<T> copier;
+
+    /**
+     * Field copier factory.
+     */
+    private final FieldCopierFactory fieldCopierFactory;
+
+    /**
+     * Metrics.
+     */
+    private final ProfileMetrics metrics;
+
+    /**
+     * Copier of the fields which are not profiled.
+     */
+    private final FieldCopier otherFieldsCopier;
+
+    /**
+     * Profiles of the reference fields.
+     */
+    private final Map<Field, FieldProfile> profiles;
+
+    /**
+     * Copier of all the fields which collects the profiles.
+     */
+    private final FieldCopier profilingCopier;
+
+    /**
+     * Number of the copies to profile before the specialization. Updated without synchronization.
+     */
+    private int samples;
+
+    /**
+     * Specialized copier of all the fields, {@code null} while profiling.
+     */
+    private volatile FieldCopier specializedCopier;
+
+    /**
+     * Guards of the specialized copier.
+     */
+    private List<FieldProfile.Guard> guards;
+
+    /**
+     * Number of the copies with the specialized copier. Updated without synchronization.
+     */
+    private long specializedCopies;
+
+    /**
+     * Creates copier.
+     *
+     * @param type object type
+     * @param copier generic copier of the type
+     * @param fieldCopierFactory field copier factory
+     * @param samples number of the copies to profile
+     * @param metrics metrics
+     * @param profiles profiles of the reference fields
+     * @param profilingCopiers copiers of the reference fields which collect the profiles
+     */
+    private ProfilingCopier(Class<T> type, ReflectionCopier<T> copier, FieldCopierFactory fieldCopierFactory, int samples,
+        ProfileMetrics metrics, Map<Field, FieldProfile> profiles, List<FieldCopier> profilingCopiers) {
+        this.type = type;
+        this.copier = copier;
+        this.fieldCopierFactory = fieldCopierFactory;
+        this.samples = samples;
+        this.metrics = metrics;
+        this.profiles = profiles;
+        Map<Field, CopyAction> otherFields = new LinkedHashMap<>(copier.getFieldActions());
+        otherFields.keySet().removeAll(profiles.keySet());
+        this.otherFieldsCopier = fieldCopierFactory.getFieldCopier(otherFields);
+        this.profilingCopier = compound(otherFieldsCopier, profilingCopiers);
+    }
+
+    /**
+     * Returns profiling copier for the type, or the generic copier if the type has no reference fields
+     * which can be profiled with the field copier factory.
+     *
+     * @param <T> object type
+     * @param type object type
+     * @param copier generic copier of the type
+     * @param fieldCopierFactory field copier factory
+     * @param samples number of the copies to profile
+     * @param metrics metrics
+     * @return object copier
+     */
+    static <T> TwoPhaseObjectCopier<T> of(Class<T> type, ReflectionCopier<T> copier, FieldCopierFactory fieldCopierFactory,
+        int samples, ProfileMetrics metrics) {
+        Map<Field, FieldProfile> profiles = new LinkedHashMap<>();
+        List<FieldCopier> profilingCopiers = new ArrayList<>();
+        copier.getFieldActions().forEach((field, action) -> {
+            if (action == CopyAction.DEFAULT && !field.getType().isPrimitive()) {
+                FieldProfile profile = new FieldProfile();
+                FieldCopier fieldCopier = fieldCopierFactory.getReferenceFieldCopier(field, profile);
+                if (fieldCopier != null) {
+                    profiles.put(field, profile);
+                    profilingCopiers.add(fieldCopier);
+                }
+            }
+        });
+        if (profiles.isEmpty()) {
+            return copier;
+        }
+        return new ProfilingCopier<>(type, copier, fieldCopierFactory, samples, metrics, profiles, profilingCopiers);
+    }
+
+    @Override
+    public T allocate(T original) throws Exception {
+        return copier.allocate(original);
+    }
+
+    @Override
+    public void deepCopy(T original, T clone, CopyContext context) throws Exception {
+        FieldCopier specializedCopier = this.specializedCopier;
+        if (specializedCopier != null) {
+            specializedCopies++;
+            specializedCopier.copy(original, clone, context);
+            return;
+        }
+        profilingCopier.copy(original, clone, context);
+        if (--samples <= 0) {
+            specialize(context);
+        }
+    }
+
+    /**
+     * Builds the specialized copier of the fields.
+     *
+     * @param context copying context, which provides the copiers of the observed types
+     */
+    private synchronized void specialize(CopyContext context) {
+        if (specializedCopier != null) {
+            return;
+        }
+        List<FieldCopier> fieldCopiers = new ArrayList<>();
+        List<FieldProfile.Guard> guards = new ArrayList<>();
+        profiles.forEach((field, profile) -> {
+            ObjectCopier<Object> valueCopier = profile.specialize(context);
+            if (valueCopier instanceof FieldProfile.Guard) {
+                guards.add((FieldProfile.Guard) valueCopier);
+            }
+            fieldCopiers.add(fieldCopierFactory.getReferenceFieldCopier(field, valueCopier));
+        });
+        this.guards = guards;
+        metrics.specialized(this);
+        specializedCopier = compound(otherFieldsCopier, fieldCopiers);
+    }
+
+    /**
+     * Returns the object type.
+     *
+     * @return object type
+     */
+    Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of the guards of the specialized copier.
+     *
+     * @return number of the guards
+     */
+    int getGuardCount() {
+        return guards.size();
+    }
+
+    /**
+     * Returns the number of the field values checked by the guards of the specialized copier.
+     *
+     * @return number of the guarded values
+     */
+    long getGuardedValues() {
+        return specializedCopies * guards.size();
+    }
+
+    /**
+     * Returns the number of the field values which have not passed the guards of the specialized copier.
+     *
+     * @return number of the guard misses
+     */
+    long getGuardMisses() {
+        return guards.stream().mapToLong(FieldProfile.Guard::getMisses).sum();
+    }
+
+    /**
+     * Returns the copier which invokes the copier of the other fields and then the copiers of the single fields.
+     *
+     * @param otherFieldsCopier copier of the other fields
+     * @param fieldCopiers copiers of the single fields
+     * @return field copier
+     */
+    private static FieldCopier compound(FieldCopier otherFieldsCopier, List<FieldCopier> fieldCopiers) {
+        List<FieldCopier> all = new ArrayList<>();
+        if (otherFieldsCopier != FieldCopier.NOOP) {
+            all.add(otherFieldsCopier);
+        }
+        all.addAll(fieldCopiers);
+        FieldCopier[] copiers = all.toArray(new FieldCopier[0]);
+        return (original, clone, context) -> {
+            for (FieldCopier copier : copiers) {
+                copier.copy(original, clone, context);
+            }
+        };
+    }
+
+}
@@ -25,14 +25,27 @@ import java.util.concurrent.Callable;
  */
 public class RecursiveCopyContext extends AbstractSingleThreadCopyContext {
 
+    /**
+     * Creates an instance.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     */
+    public RecursiveCopyContext(CopierProvider copierProvider, CloneTable predefined) {
+        super(copierProvider, predefined);
+    }
+
     /**
      * Creates an instance.
      *
      * @param copierProvider copier provider
      * @param clones predefined cloned objects
+     * @deprecated use {@link #RecursiveCopyContext(CopierProvider, CloneTable)}
+     * with {@link #predefinedClones(Map)}, which builds the table once
      */
+    @Deprecated
     public RecursiveCopyContext(CopierProvider copierProvider, Map<Object, Object> clones) {
-        super(copierProvider, clones);
+        this(copierProvider, predefinedClones(clones));
     }
 
     @Override
@@ -40,6 +53,11 @@ public class RecursiveCopyContext extends AbstractSingleThreadCopyContext {
         task.call();
     }
 
+    @Override
+    public <T> void thenCopy(TwoPhaseObjectCopier<T> copier, T original, T clone) throws Exception {
+        copier.deepCopy(original, clone, this);
+    }
+
     @Override
     public void complete() throws Throwable {
     }
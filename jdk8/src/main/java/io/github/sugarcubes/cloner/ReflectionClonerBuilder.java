@@ -17,10 +17,12 @@ package io.github.sugarcubes.cloner;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -53,14 +55,29 @@ public final class ReflectionClonerBuilder {
         JDK_CONFIGURATION.getImmutableTypes().forEach(type -> defaultCopiers.put(type, ObjectCopier.NOOP));
         JDK_CONFIGURATION.getCloneableTypes().forEach(type -> defaultCopiers.put(type, ObjectCopier.CLONEABLE));
 
-        defaultCopiers.put(java.util.ArrayDeque.class, new SimpleCollectionCopier<>(java.util.ArrayDeque::new));
-        defaultCopiers.put(java.util.ArrayList.class, new SimpleCollectionCopier<>(java.util.ArrayList::new));
+        defaultCopiers.put(java.util.ArrayDeque.class, new ArrayDequeCopier());
+        defaultCopiers.put(java.util.ArrayList.class,
+            new ArrayListCopier<>(ReflectionCopierProvider.cloneMethod(java.util.ArrayList<Object>::clone)));
         defaultCopiers.put(java.util.LinkedList.class, new SimpleCollectionCopier<>(size -> new java.util.LinkedList<>()));
-        defaultCopiers.put(java.util.Stack.class, new SimpleCollectionCopier<>(size -> new java.util.Stack<>()));
-        defaultCopiers.put(java.util.Vector.class, new SimpleCollectionCopier<>(java.util.Vector::new));
+        defaultCopiers.put(java.util.Stack.class,
+            new ArrayListCopier<>(ReflectionCopierProvider.cloneMethod(java.util.Stack<Object>::clone)));
+        defaultCopiers.put(java.util.Vector.class,
+            new ArrayListCopier<>(ReflectionCopierProvider.cloneMethod(java.util.Vector<Object>::clone)));
+        defaultCopiers.put(java.util.concurrent.ConcurrentLinkedDeque.class,
+            new SimpleCollectionCopier<>(size -> new java.util.concurrent.ConcurrentLinkedDeque<>(), true));
+        defaultCopiers.put(java.util.concurrent.ConcurrentLinkedQueue.class,
+            new SimpleCollectionCopier<>(size -> new java.util.concurrent.ConcurrentLinkedQueue<>(), true));
+        defaultCopiers.put(java.util.concurrent.CopyOnWriteArrayList.class,
+            new SimpleCollectionCopier<>(size -> new java.util.concurrent.CopyOnWriteArrayList<>()));
 
         defaultCopiers.put(java.util.EnumMap.class, new EnumMapCopier<>());
         defaultCopiers.put(java.util.IdentityHashMap.class, new IdentityHashMapCopier());
+        defaultCopiers.put(java.util.TreeMap.class, new TreeMapCopier());
+        defaultCopiers.put(java.util.TreeSet.class, new TreeSetCopier());
+
+        defaultCopiers.put(java.util.concurrent.atomic.AtomicIntegerArray.class, new AtomicIntegerArrayCopier());
+        defaultCopiers.put(java.util.concurrent.atomic.AtomicLongArray.class, new AtomicLongArrayCopier());
+        defaultCopiers.put(java.util.concurrent.atomic.AtomicReferenceArray.class, new AtomicReferenceArrayCopier());
 
         DEFAULT_COPIERS = Collections.unmodifiableMap(defaultCopiers);
     }
@@ -85,11 +102,46 @@ public final class ReflectionClonerBuilder {
      */
     private TraversalAlgorithm traversalAlgorithm;
 
+    /**
+     * Maximal recursion depth for hybrid mode.
+     */
+    private Integer recursionDepth;
+
+    /**
+     * Parallel threshold for adaptive mode.
+     */
+    private Integer parallelThreshold;
+
     /**
      * Executor service for parallel mode.
      */
     private ExecutorService executor;
 
+    /**
+     * Split threshold for parallel mode.
+     */
+    private Integer splitThreshold;
+
+    /**
+     * Number of the copies of a type to profile before its copier is specialized.
+     */
+    private Integer profileSamples;
+
+    /**
+     * Metrics of the profile-guided specialization.
+     */
+    private ProfileMetrics profileMetrics;
+
+    /**
+     * Maximal number of the cached copiers of the types loaded by the non-bootstrap class loaders.
+     */
+    private Integer copierCacheSize;
+
+    /**
+     * Immutability analyzer.
+     */
+    private ImmutabilityAnalyzer immutabilityAnalyzer;
+
     /**
      * Object copy policy.
      */
@@ -145,12 +197,81 @@ public final class ReflectionClonerBuilder {
      */
     private final Set<Class<?>> shallows = new HashSet<>();
 
+    /**
+     * Types which instances are never shared.
+     */
+    private final Set<Class<?>> unsharedTypes = new HashSet<>();
+
+    /**
+     * Predicates for the types which instances are never shared.
+     */
+    private final List<Predicate<Class<?>>> unsharedPredicates = new ArrayList<>();
+
+    /**
+     * Root types of the warm-up.
+     */
+    private final Set<Class<?>> warmUpTypes = new LinkedHashSet<>();
+
+    /**
+     * Metrics of the warm-up.
+     */
+    private WarmUpMetrics warmUpMetrics;
+
     /**
      * Creates a builder.
      */
     public ReflectionClonerBuilder() {
     }
 
+    /**
+     * Creates a builder with the copy of the configuration of another builder. The metrics of the profile-guided
+     * specialization and of the warm-up are not copied, so the new builder can be given its own metrics.
+     *
+     * @param builder builder to copy the configuration from
+     */
+    ReflectionClonerBuilder(ReflectionClonerBuilder builder) {
+        this(builder, false);
+    }
+
+    /**
+     * Creates a builder with the copy of the configuration of another builder.
+     *
+     * @param builder builder to copy the configuration from
+     * @param metrics whether to copy the profiling settings and the metrics
+     */
+    private ReflectionClonerBuilder(ReflectionClonerBuilder builder, boolean metrics) {
+        this.objectFactoryProvider = builder.objectFactoryProvider;
+        this.fieldCopierFactory = builder.fieldCopierFactory;
+        this.mode = builder.mode;
+        this.traversalAlgorithm = builder.traversalAlgorithm;
+        this.recursionDepth = builder.recursionDepth;
+        this.parallelThreshold = builder.parallelThreshold;
+        this.executor = builder.executor;
+        this.splitThreshold = builder.splitThreshold;
+        this.copierCacheSize = builder.copierCacheSize;
+        this.immutabilityAnalyzer = builder.immutabilityAnalyzer;
+        this.objectPolicy = builder.objectPolicy;
+        this.objectActions.putAll(builder.objectActions);
+        this.typePolicy = builder.typePolicy;
+        this.typeActions.putAll(builder.typeActions);
+        this.typePredicateActions.putAll(builder.typePredicateActions);
+        this.fieldPolicy = builder.fieldPolicy;
+        this.fieldActions.putAll(builder.fieldActions);
+        this.fieldPredicateActions.putAll(builder.fieldPredicateActions);
+        this.copiers.clear();
+        this.copiers.putAll(builder.copiers);
+        this.clones.putAll(builder.clones);
+        this.shallows.addAll(builder.shallows);
+        this.unsharedTypes.addAll(builder.unsharedTypes);
+        this.unsharedPredicates.addAll(builder.unsharedPredicates);
+        this.warmUpTypes.addAll(builder.warmUpTypes);
+        if (metrics) {
+            this.profileSamples = builder.profileSamples;
+            this.profileMetrics = builder.profileMetrics;
+            this.warmUpMetrics = builder.warmUpMetrics;
+        }
+    }
+
     /**
      * Sets object allocator.
      *
@@ -179,7 +300,29 @@ public final class ReflectionClonerBuilder {
      * @return same builder instance
      */
     public ReflectionClonerBuilder unsafe() {
-        return objectFactoryProvider(new UnsafeObjectFactoryProvider()).fieldCopierFactory(new UnsafeFieldCopierFactory());
+        return objectFactoryProvider(UnsafeComponents.ALLOCATOR).fieldCopierFactory(UnsafeComponents.UNSAFE);
+    }
+
+    /**
+     * Sets allocator which uses {@link sun.misc.Unsafe} and field copier factory which copies the primitive fields
+     * in bulk and then patches the reference fields.
+     *
+     * @return same builder instance
+     * @see BulkFieldCopierFactory
+     */
+    public ReflectionClonerBuilder bulk() {
+        return objectFactoryProvider(UnsafeComponents.ALLOCATOR).fieldCopierFactory(UnsafeComponents.BULK);
+    }
+
+    /**
+     * Sets allocator which uses {@link sun.misc.Unsafe} and field copier factory which generates bytecode
+     * of the field copiers.
+     *
+     * @return same builder instance
+     * @see BytecodeFieldCopierFactory
+     */
+    public ReflectionClonerBuilder bytecode() {
+        return objectFactoryProvider(UnsafeComponents.ALLOCATOR).fieldCopierFactory(UnsafeComponents.BYTECODE);
     }
 
     /**
@@ -204,6 +347,33 @@ public final class ReflectionClonerBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximal depth of the recursion, beyond which the objects are queued instead. Applies to hybrid
+     * and adaptive modes only, the default is {@value HybridCopyContext#DEFAULT_RECURSION_DEPTH}.
+     *
+     * @param recursionDepth maximal recursion depth
+     * @return same builder instance
+     */
+    public ReflectionClonerBuilder recursionDepth(int recursionDepth) {
+        Checks.illegalArg(recursionDepth <= 0, "Recursion depth must be positive.");
+        this.recursionDepth = check(recursionDepth, this.recursionDepth, "Recursion depth");
+        return this;
+    }
+
+    /**
+     * Sets the expected number of the objects in the graph from which adaptive mode copies the graph in parallel.
+     * Applies to adaptive mode only, the default is {@value AdaptiveCloner#DEFAULT_PARALLEL_THRESHOLD}
+     * if more than one processor is available, otherwise adaptive mode never copies in parallel.
+     *
+     * @param parallelThreshold parallel threshold
+     * @return same builder instance
+     */
+    public ReflectionClonerBuilder parallelThreshold(int parallelThreshold) {
+        Checks.illegalArg(parallelThreshold <= 0, "Parallel threshold must be positive.");
+        this.parallelThreshold = check(parallelThreshold, this.parallelThreshold, "Parallel threshold");
+        return this;
+    }
+
     /**
      * Enables parallel mode with given executor service.
      *
@@ -215,6 +385,20 @@ public final class ReflectionClonerBuilder {
         return this;
     }
 
+    /**
+     * Sets the number of elements of an array or a collection above which the elements are split into the ranges
+     * copied in parallel. Applies to parallel and virtual modes only, the default is
+     * {@value AbstractCopyContext#DEFAULT_SPLIT_THRESHOLD}.
+     *
+     * @param splitThreshold split threshold
+     * @return same builder instance
+     */
+    public ReflectionClonerBuilder splitThreshold(int splitThreshold) {
+        Checks.illegalArg(splitThreshold <= 0, "Split threshold must be positive.");
+        this.splitThreshold = check(splitThreshold, this.splitThreshold, "Split threshold");
+        return this;
+    }
+
     /**
      * Sets object policy. Using object policy significantly slows down cloning process, thus,
      * type and field policies should be used if possible.
@@ -439,6 +623,129 @@ public final class ReflectionClonerBuilder {
         return this;
     }
 
+    /**
+     * Declares that the instances of the type are never shared, i.e. every instance is referenced at most once
+     * in the cloned object graph. The cloner does not track identity of such objects.
+     *
+     * @param type type
+     * @return same builder instance
+     * @see Unshared
+     */
+    public ReflectionClonerBuilder unshared(Class<?> type) {
+        Checks.argNotNull(type, "Type");
+        Checks.illegalArg(unsharedTypes.contains(type), "Type %s already declared as unshared.", type);
+        unsharedTypes.add(type);
+        return this;
+    }
+
+    /**
+     * Declares that the instances of the types matching the predicate are never shared.
+     *
+     * @param typePredicate type predicate
+     * @return same builder instance
+     * @see #unshared(Class)
+     */
+    public ReflectionClonerBuilder unshared(Predicate<Class<?>> typePredicate) {
+        Checks.argNotNull(typePredicate, "Type predicate");
+        unsharedPredicates.add(typePredicate);
+        return this;
+    }
+
+    /**
+     * Sets immutability analyzer. The instances of the types, which the analyzer infers to be deeply immutable,
+     * are copied by reference. The analyzer has lower priority than builder configuration and annotations.
+     *
+     * @param immutabilityAnalyzer immutability analyzer
+     * @return same builder instance
+     */
+    public ReflectionClonerBuilder immutabilityAnalyzer(ImmutabilityAnalyzer immutabilityAnalyzer) {
+        this.immutabilityAnalyzer = check(immutabilityAnalyzer, this.immutabilityAnalyzer, "Immutability analyzer");
+        return this;
+    }
+
+    /**
+     * Enables inference of deep immutability with the default {@link ImmutabilityAnalyzer}.
+     *
+     * @return same builder instance
+     * @see #immutabilityAnalyzer(ImmutabilityAnalyzer)
+     */
+    public ReflectionClonerBuilder inferImmutability() {
+        return immutabilityAnalyzer(new ImmutabilityAnalyzer());
+    }
+
+    /**
+     * Enables profile-guided specialization of the copiers, which is disabled by default. The copier of a type copied
+     * field by field records the classes of the values of the reference fields during the first copies of the type.
+     * Then it is rebuilt specialized on the observed classes: {@code null} and the values of the only observed class
+     * of a field are copied without the copier lookup, the unexpected values fall back to the generic path.
+     * The specialization is not applied if an object policy is set.
+     *
+     * @param samples number of the copies of a type to profile before its copier is specialized
+     * @param metrics metrics of the specialization
+     * @return same builder instance
+     */
+    public ReflectionClonerBuilder profile(int samples, ProfileMetrics metrics) {
+        Checks.illegalArg(samples <= 0, "Profile samples must be positive.");
+        this.profileSamples = check(samples, this.profileSamples, "Profile samples");
+        this.profileMetrics = check(metrics, this.profileMetrics, "Profile metrics");
+        return this;
+    }
+
+    /**
+     * Bounds the number of the cached copiers of the types loaded by the non-bootstrap class loaders, e.g. the plugin
+     * classes or the generated proxies. When the bound is exceeded, the oldest copiers are evicted and will be created
+     * again if needed. The copiers are cached in the classes themselves (see {@link ClassValue}), so, the cache does not
+     * prevent the classes from being unloaded, even if it is unbounded, which is the default.
+     *
+     * @param copierCacheSize maximal number of the cached copiers
+     * @return same builder instance
+     */
+    public ReflectionClonerBuilder copierCacheSize(int copierCacheSize) {
+        Checks.illegalArg(copierCacheSize <= 0, "Copier cache size must be positive.");
+        this.copierCacheSize = check(copierCacheSize, this.copierCacheSize, "Copier cache size");
+        return this;
+    }
+
+    /**
+     * Registers the root types of the warm-up. The copiers of the types and of the concrete types reachable from them
+     * through the copied fields are created in parallel by {@link #build()}, so the first copies do not pay for the
+     * reflection, the field copiers generation and the object factories creation.
+     *
+     * @param types root types
+     * @return same builder instance
+     * @see #warmUpMetrics(WarmUpMetrics)
+     */
+    public ReflectionClonerBuilder warmUp(Class<?>... types) {
+        Checks.argNotNull(types, "Types");
+        Arrays.stream(types).forEach(type -> warmUpTypes.add(Checks.argNotNull(type, "Type")));
+        return this;
+    }
+
+    /**
+     * Sets metrics of the warm-up, which report the prepared types and the duration.
+     *
+     * @param warmUpMetrics warm-up metrics
+     * @return same builder instance
+     * @see #warmUp(Class[])
+     */
+    public ReflectionClonerBuilder warmUpMetrics(WarmUpMetrics warmUpMetrics) {
+        this.warmUpMetrics = check(warmUpMetrics, this.warmUpMetrics, "Warm-up metrics");
+        return this;
+    }
+
+    /**
+     * Declares that the cloned object graphs are trees, i.e. there are no shared objects and no cycles.
+     * The cloner does not track identity of the objects, except for the instances of the JDK classes (loaded by the
+     * bootstrap class loader), which internal structure may contain shared objects (e.g. entries of
+     * {@link java.util.LinkedHashMap}).
+     *
+     * @return same builder instance
+     * @see #unshared(Class)
+     */
+    public ReflectionClonerBuilder tree() {
+        return unshared(type -> type.getClassLoader() != null);
+    }
+
     /**
      * Checks new value to be not null and old value to be null.
      *
@@ -500,6 +807,37 @@ public final class ReflectionClonerBuilder {
      * @return cloner
      */
     public Cloner build() {
+        return new ReflectionClonerBuilder(this, true).buildCloner();
+    }
+
+    /**
+     * Creates an instance of the cloner. The builder becomes the configuration of the cloner, see {@link Cloner#toBuilder()},
+     * so, it must not be modified after the call.
+     *
+     * @return cloner
+     */
+    private Cloner buildCloner() {
+        ReflectionCopierProvider provider = createCopierProvider();
+        if (!warmUpTypes.isEmpty()) {
+            CopierWarmUp.warmUp(provider, warmUpTypes, warmUpMetrics);
+        }
+        CloneTable predefined = AbstractCopyContext.predefinedClones(clones);
+        CloningMode mode = createIfNull(this.mode, () -> CloningMode.SEQUENTIAL);
+        Checks.illegalArg(recursionDepth != null && mode != CloningMode.HYBRID && mode != CloningMode.ADAPTIVE,
+            "Recursion depth applies to hybrid and adaptive modes only.");
+        Checks.illegalArg(parallelThreshold != null && mode != CloningMode.ADAPTIVE, "Parallel threshold applies to adaptive mode only.");
+        if (mode == CloningMode.ADAPTIVE) {
+            return createAdaptiveCloner(provider, predefined);
+        }
+        return new ClonerImpl(createContextSupplier(mode, provider, predefined), this);
+    }
+
+    /**
+     * Creates copier provider on the basis of the configuration.
+     *
+     * @return copier provider
+     */
+    private ReflectionCopierProvider createCopierProvider() {
         CopyPolicy<Object> objectPolicy;
         if (this.objectPolicy != null || !objectActions.isEmpty()) {
             objectPolicy = compound(this.objectPolicy, objectActions, Collections.emptyMap(), null);
@@ -512,33 +850,163 @@ public final class ReflectionClonerBuilder {
 
         CopyPolicy<Field> fieldPolicy = compound(this.fieldPolicy, fieldActions, fieldPredicateActions, new AnnotatedFieldCopyPolicy());
 
-        ObjectFactoryProvider objectFactoryProvider = createIfNull(this.objectFactoryProvider, ObjectFactoryProvider::defaultInstance);
-        FieldCopierFactory fieldCopierFactory = createIfNull(this.fieldCopierFactory, ReflectionFieldCopierFactory::new);
-        ReflectionCopierProvider provider =
-            new ReflectionCopierProvider(objectPolicy, typePolicy, fieldPolicy, objectFactoryProvider, copiers, shallows, fieldCopierFactory);
+        ObjectFactoryProvider objectFactoryProvider = createIfNull(this.objectFactoryProvider, () -> DefaultComponents.ALLOCATOR);
+        FieldCopierFactory fieldCopierFactory = createIfNull(this.fieldCopierFactory, () -> DefaultComponents.FIELD_COPIER_FACTORY);
+
+        return new ReflectionCopierProvider(objectPolicy, typePolicy, fieldPolicy, objectFactoryProvider,
+            copiers, shallows, fieldCopierFactory, createUnsharedPredicate(), immutabilityAnalyzer,
+            profileSamples != null ? profileSamples : 0, profileMetrics, createIfNull(copierCacheSize, () -> Integer.MAX_VALUE));
+    }
 
-        Supplier<? extends AbstractCopyContext> contextSupplier;
-        CloningMode mode = this.mode != null ? this.mode : CloningMode.SEQUENTIAL;
+    /**
+     * Creates predicate for the types which instances are never shared.
+     *
+     * @return type predicate
+     */
+    private Predicate<Class<?>> createUnsharedPredicate() {
+        Set<Class<?>> unsharedTypes = new HashSet<>(this.unsharedTypes);
+        List<Predicate<Class<?>>> unsharedPredicates = new ArrayList<>(this.unsharedPredicates);
+        return type -> unsharedTypes.contains(type) || type.isAnnotationPresent(Unshared.class) ||
+            unsharedPredicates.stream().anyMatch(predicate -> predicate.test(type));
+    }
+
+    /**
+     * Returns split threshold for the parallel modes.
+     *
+     * @return split threshold
+     */
+    private int getSplitThreshold() {
+        return splitThreshold != null ? splitThreshold : AbstractCopyContext.DEFAULT_SPLIT_THRESHOLD;
+    }
+
+    /**
+     * Returns maximal recursion depth for hybrid mode.
+     *
+     * @return recursion depth
+     */
+    private int getRecursionDepth() {
+        return recursionDepth != null ? recursionDepth : HybridCopyContext.DEFAULT_RECURSION_DEPTH;
+    }
+
+    /**
+     * Creates supplier of the copy contexts for the cloning mode.
+     *
+     * @param mode cloning mode
+     * @param provider copier provider
+     * @param predefined predefined clones
+     * @return context supplier
+     */
+    private Supplier<? extends AbstractCopyContext> createContextSupplier(CloningMode mode, CopierProvider provider,
+        CloneTable predefined) {
         switch (mode) {
             case RECURSIVE:
                 Checks.isNull(this.traversalAlgorithm, "Traversal algorithm must be null for recursive mode.");
                 Checks.isNull(this.executor, "Executor must be null for recursive mode.");
-                contextSupplier = () -> new RecursiveCopyContext(provider, clones);
-                break;
+                Checks.isNull(this.splitThreshold, "Split threshold must be null for recursive mode.");
+                return () -> new RecursiveCopyContext(provider, predefined);
             case SEQUENTIAL:
                 Checks.isNull(this.executor, "Executor must be null for sequential mode.");
-                TraversalAlgorithm traversalAlgorithm = this.traversalAlgorithm != null ? this.traversalAlgorithm : TraversalAlgorithm.DEPTH_FIRST;
-                contextSupplier = () -> new SequentialCopyContext(provider, clones, traversalAlgorithm);
-                break;
+                Checks.isNull(this.splitThreshold, "Split threshold must be null for sequential mode.");
+                TraversalAlgorithm traversalAlgorithm = createIfNull(this.traversalAlgorithm, () -> TraversalAlgorithm.DEPTH_FIRST);
+                return () -> new SequentialCopyContext(provider, predefined, traversalAlgorithm);
+            case HYBRID:
+                Checks.isNull(this.traversalAlgorithm, "Traversal algorithm must be null for hybrid mode.");
+                Checks.isNull(this.executor, "Executor must be null for hybrid mode.");
+                Checks.isNull(this.splitThreshold, "Split threshold must be null for hybrid mode.");
+                int recursionDepth = getRecursionDepth();
+                return () -> new HybridCopyContext(provider, predefined, recursionDepth);
             case PARALLEL:
                 Checks.isNull(this.traversalAlgorithm, "Traversal algorithm must be null for parallel mode.");
-                ExecutorService executor = createIfNull(this.executor, ForkJoinPool::commonPool);
-                contextSupplier = () -> new ParallelCopyContext(provider, clones, executor);
-                break;
+                return createParallelContextSupplier(provider, predefined);
+            case VIRTUAL:
+                Checks.isNull(this.traversalAlgorithm, "Traversal algorithm must be null for virtual mode.");
+                Checks.isNull(this.executor, "Executor must be null for virtual mode.");
+                return JDK_CONFIGURATION.getVirtualThreadContextSupplier(provider, predefined, getSplitThreshold());
             default:
                 throw Checks.mustNotHappen();
         }
-        return new ClonerImpl(contextSupplier);
+    }
+
+    /**
+     * Creates adaptive cloner, which chooses between hybrid, sequential and parallel modes.
+     *
+     * @param provider copier provider
+     * @param predefined predefined clones
+     * @return cloner
+     */
+    private Cloner createAdaptiveCloner(CopierProvider provider, CloneTable predefined) {
+        TraversalAlgorithm traversalAlgorithm = createIfNull(this.traversalAlgorithm, () -> TraversalAlgorithm.DEPTH_FIRST);
+        int recursionDepth = getRecursionDepth();
+        int parallelThreshold = createIfNull(this.parallelThreshold,
+            () -> Runtime.getRuntime().availableProcessors() > 1 ? AdaptiveCloner.DEFAULT_PARALLEL_THRESHOLD : Integer.MAX_VALUE);
+        return new AdaptiveCloner(
+            () -> new HybridCopyContext(provider, predefined, recursionDepth),
+            () -> new SequentialCopyContext(provider, predefined, traversalAlgorithm),
+            createParallelContextSupplier(provider, predefined),
+            recursionDepth, parallelThreshold, this);
+    }
+
+    /**
+     * Creates supplier of the copy contexts for parallel mode.
+     *
+     * @param provider copier provider
+     * @param predefined predefined clones
+     * @return context supplier
+     */
+    private Supplier<? extends AbstractCopyContext> createParallelContextSupplier(CopierProvider provider, CloneTable predefined) {
+        ExecutorService executor = createIfNull(this.executor, ForkJoinPool::commonPool);
+        int splitThreshold = getSplitThreshold();
+        if (executor instanceof ForkJoinPool) {
+            ForkJoinPool pool = (ForkJoinPool) executor;
+            return () -> new ForkJoinCopyContext(provider, predefined, pool, splitThreshold);
+        }
+        return () -> new ParallelCopyContext(provider, predefined, executor, splitThreshold);
+    }
+
+    /**
+     * Default allocator and field copier factory. The instances are shared by the cloners, so the cloners
+     * can share the copier plans, see {@link CopierPlanCache}.
+     */
+    private static final class DefaultComponents {
+
+        /**
+         * Default object allocator.
+         */
+        static final ObjectFactoryProvider ALLOCATOR = ObjectFactoryProvider.defaultInstance();
+
+        /**
+         * Default field copier factory.
+         */
+        static final FieldCopierFactory FIELD_COPIER_FACTORY = new ReflectionFieldCopierFactory();
+
+    }
+
+    /**
+     * Allocator and field copier factories which use {@link sun.misc.Unsafe}. The instances are shared by the cloners,
+     * so the cloners can share the copier plans, see {@link CopierPlanCache}.
+     */
+    private static final class UnsafeComponents {
+
+        /**
+         * Object allocator.
+         */
+        static final ObjectFactoryProvider ALLOCATOR = new UnsafeObjectFactoryProvider();
+
+        /**
+         * Field copier factory for {@link #unsafe()}.
+         */
+        static final FieldCopierFactory UNSAFE = new UnsafeFieldCopierFactory();
+
+        /**
+         * Field copier factory for {@link #bulk()}.
+         */
+        static final FieldCopierFactory BULK = new BulkFieldCopierFactory();
+
+        /**
+         * Field copier factory for {@link #bytecode()}.
+         */
+        static final FieldCopierFactory BYTECODE = new BytecodeFieldCopierFactory();
+
     }
 
 }
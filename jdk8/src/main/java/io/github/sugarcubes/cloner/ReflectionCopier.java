@@ -17,6 +17,9 @@ package io.github.sugarcubes.cloner;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Copier which creates object with {@link #factory}, when copying, enumerates fields,
@@ -32,14 +35,15 @@ public class ReflectionCopier<T> extends TwoPhaseObjectCopier<T> {
     private final ObjectFactory<T> factory;
 
     /**
-     * Super type cloner, nullable.
+     * Copy actions of the non-skipped fields of the type, including the fields of super types.
+     * Super type fields go first.
      */
-    private final ReflectionCopier<? super T> parent;
+    private final Map<Field, CopyAction> fieldActions;
 
     /**
-     * List of field copiers.
+     * Copier of all the fields.
      */
-    private final FieldCopier[] fieldCopiers;
+    private final FieldCopier fieldCopier;
 
     /**
      * Creates reflection copier.
@@ -51,20 +55,31 @@ public class ReflectionCopier<T> extends TwoPhaseObjectCopier<T> {
      * @param parent copier for the super type
      * @param shallow shallow mode
      */
-    @SuppressWarnings("unchecked")
     public ReflectionCopier(CopyPolicy<Field> policy, ObjectFactoryProvider allocator, Class<T> type,
         FieldCopierFactory fieldCopierFactory, ReflectionCopier<?> parent, boolean shallow) {
         this.factory = allocator.getFactory(type);
-        this.parent = (ReflectionCopier<? super T>) (parent != null && parent.fieldCopiers.length == 0 ?
-            parent.parent : parent);
         CopyPolicy<Field> fieldPolicy = shallow
             ? CopyPolicy.compound(policy, CopyPolicy.original())
             : policy;
-        this.fieldCopiers = Arrays.stream(ReflectionUtils.getDeclaredFields(type))
+        Map<Field, CopyAction> fieldActions = new LinkedHashMap<>();
+        if (parent != null) {
+            fieldActions.putAll(parent.fieldActions);
+        }
+        Arrays.stream(ReflectionUtils.getDeclaredFields(type))
             .filter(ReflectionUtils::isNonStatic)
-            .map(field -> fieldCopierFactory.getFieldCopier(field, fieldPolicy.getAction(field)))
-            .filter(copier -> copier != FieldCopier.NOOP)
-            .toArray(FieldCopier[]::new);
+            .forEach(field -> fieldActions.put(field, fieldPolicy.getAction(field)));
+        fieldActions.values().removeIf(action -> action == CopyAction.SKIP);
+        this.fieldActions = Collections.unmodifiableMap(fieldActions);
+        this.fieldCopier = fieldCopierFactory.getFieldCopier(this.fieldActions);
+    }
+
+    /**
+     * Returns copy actions of the non-skipped fields of the type, including the fields of super types.
+     *
+     * @return unmodifiable map (field, copying action)
+     */
+    Map<Field, CopyAction> getFieldActions() {
+        return fieldActions;
     }
 
     @Override
@@ -74,12 +89,7 @@ public class ReflectionCopier<T> extends TwoPhaseObjectCopier<T> {
 
     @Override
     public void deepCopy(T original, T clone, CopyContext context) throws Exception {
-        if (parent != null) {
-            parent.deepCopy(original, clone, context);
-        }
-        for (FieldCopier field : fieldCopiers) {
-            field.copy(original, clone, context);
-        }
+        fieldCopier.copy(original, clone, context);
     }
 
 }
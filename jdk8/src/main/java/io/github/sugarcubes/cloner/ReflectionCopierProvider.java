@@ -17,11 +17,23 @@ package io.github.sugarcubes.cloner;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Copier provider implementation.
@@ -30,6 +42,38 @@ import java.util.function.Supplier;
  */
 public class ReflectionCopierProvider implements CopierProvider {
 
+    /**
+     * JDK immutable collection types.
+     */
+    private static final Set<Class<?>> IMMUTABLE_COLLECTION_TYPES =
+        JdkConfigurationHolder.CONFIGURATION.getImmutableCollectionTypes();
+
+    /**
+     * Shallow copy functions of the maps which are copied with {@link HashMapCopier}.
+     */
+    private static final Map<Class<?>, UnaryOperator<Map<Object, Object>>> MAP_SHALLOW_COPIES;
+
+    /**
+     * Shallow copy functions of the sets which are copied with {@link HashSetCopier}.
+     */
+    private static final Map<Class<?>, UnaryOperator<Set<Object>>> SET_SHALLOW_COPIES;
+
+    static {
+        Map<Class<?>, UnaryOperator<Map<Object, Object>>> maps = new HashMap<>();
+        maps.put(HashMap.class, cloneMethod(HashMap<Object, Object>::clone));
+        maps.put(LinkedHashMap.class, cloneMethod(LinkedHashMap<Object, Object>::clone));
+        maps.put(Hashtable.class, cloneMethod(Hashtable<Object, Object>::clone));
+        maps.put(ConcurrentHashMap.class, ConcurrentHashMap::new);
+        maps.put(ConcurrentSkipListMap.class, map -> new ConcurrentSkipListMap<>((ConcurrentSkipListMap<Object, Object>) map));
+        MAP_SHALLOW_COPIES = Collections.unmodifiableMap(maps);
+
+        Map<Class<?>, UnaryOperator<Set<Object>>> sets = new HashMap<>();
+        sets.put(HashSet.class, cloneMethod(HashSet<Object>::clone));
+        sets.put(LinkedHashSet.class, cloneMethod(LinkedHashSet<Object>::clone));
+        sets.put(ConcurrentSkipListSet.class, set -> ((ConcurrentSkipListSet<Object>) set).clone());
+        SET_SHALLOW_COPIES = Collections.unmodifiableMap(sets);
+    }
+
     /**
      * Object policy.
      */
@@ -58,17 +102,42 @@ public class ReflectionCopierProvider implements CopierProvider {
     /**
      * Cache of copiers.
      */
-    private final ConcurrentLazyCache<Class<?>, ObjectCopier<?>> copiers = new ConcurrentLazyCache<>(this::findCopier);
+    private final ClassValueCache<ObjectCopier<?>> copiers;
 
     /**
      * Shallow mode types.
      */
     private final Set<Class<?>> shallows;
 
+    /**
+     * Predicate for the types which instances are never shared.
+     */
+    private final Predicate<Class<?>> unshared;
+
+    /**
+     * Immutability analyzer, nullable.
+     */
+    private final ImmutabilityAnalyzer immutabilityAnalyzer;
+
+    /**
+     * Number of the copies of a type to profile before its copier is specialized.
+     */
+    private final int profileSamples;
+
+    /**
+     * Metrics of the profile-guided specialization, {@code null} if the specialization is disabled.
+     */
+    private final ProfileMetrics profileMetrics;
+
     /**
      * Cache of reflection copiers.
      */
-    private final Map<Map.Entry<Class<?>, Boolean>, ReflectionCopier<?>> reflectionCopiers = new ConcurrentHashMap<>();
+    private final ClassValueCache<ReflectionCopier<?>> reflectionCopiers;
+
+    /**
+     * Cache of reflection copiers for shallow mode.
+     */
+    private final ClassValueCache<ReflectionCopier<?>> shallowReflectionCopiers;
 
     /**
      * Constructor.
@@ -80,17 +149,32 @@ public class ReflectionCopierProvider implements CopierProvider {
      * @param copiers predefined copiers
      * @param shallows shallow-mode types
      * @param fieldCopierFactory field copier factory
+     * @param unshared predicate for the types which instances are never shared
+     * @param immutabilityAnalyzer immutability analyzer or {@code null} if immutability must not be inferred
+     * @param profileSamples number of the copies of a type to profile before its copier is specialized
+     * @param profileMetrics metrics of the profile-guided specialization or {@code null} if it is disabled
+     * @param cacheSize maximal number of the cached copiers of the types loaded by the non-bootstrap class loaders,
+     * see {@link ClassValueCache}
      */
+    @SuppressWarnings("checkstyle:ParameterNumber")
     public ReflectionCopierProvider(CopyPolicy<Object> objectPolicy, CopyPolicy<Class<?>> typePolicy,
         CopyPolicy<Field> fieldPolicy, ObjectFactoryProvider allocator, Map<Class<?>, ObjectCopier<?>> copiers,
-        Set<Class<?>> shallows, FieldCopierFactory fieldCopierFactory) {
+        Set<Class<?>> shallows, FieldCopierFactory fieldCopierFactory, Predicate<Class<?>> unshared,
+        ImmutabilityAnalyzer immutabilityAnalyzer, int profileSamples, ProfileMetrics profileMetrics, int cacheSize) {
         this.objectPolicy = objectPolicy;
         this.typePolicy = typePolicy;
         this.fieldPolicy = fieldPolicy;
         this.allocator = allocator;
         this.fieldCopierFactory = fieldCopierFactory;
-        this.copiers.putAll(copiers);
+        this.copiers = new ClassValueCache<>(copiers, this::findCopier, cacheSize);
+        this.reflectionCopiers = new ClassValueCache<>(Collections.emptyMap(), type -> createReflectionCopier(type, false), cacheSize);
+        this.shallowReflectionCopiers = new ClassValueCache<>(Collections.emptyMap(), type -> createReflectionCopier(type, true),
+            cacheSize);
         this.shallows = shallows;
+        this.unshared = unshared;
+        this.immutabilityAnalyzer = immutabilityAnalyzer;
+        this.profileSamples = profileSamples;
+        this.profileMetrics = profileMetrics;
     }
 
     @Override
@@ -102,6 +186,40 @@ public class ReflectionCopierProvider implements CopierProvider {
         return (ObjectCopier<T>) copiers.get(original.getClass());
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ObjectCopier<T> getTypeCopier(Class<T> type) {
+        return objectPolicy == null ? (ObjectCopier<T>) copiers.get(type) : null;
+    }
+
+    /**
+     * Creates the copier of the type in advance, see {@link CopierWarmUp}.
+     *
+     * @param type object type
+     * @return types of the values which are copied with their own copiers: the declared types of the copied fields or
+     *     the component type of the array
+     */
+    Collection<Class<?>> prepare(Class<?> type) {
+        ObjectCopier<?> copier = copiers.get(type);
+        if (copier instanceof TrivialCopier) {
+            return Collections.emptySet();
+        }
+        if (type.isArray()) {
+            return copier == ObjectCopier.OBJECT_ARRAY ? Collections.singleton(type.getComponentType()) : Collections.emptySet();
+        }
+        ReflectionCopier<?> plan = reflectionCopiers.getIfPresent(type);
+        if (plan == null) {
+            return Collections.emptySet();
+        }
+        Set<Class<?>> types = new LinkedHashSet<>();
+        plan.getFieldActions().forEach((field, action) -> {
+            if (action == CopyAction.DEFAULT && !field.getType().isPrimitive()) {
+                types.add(field.getType());
+            }
+        });
+        return types;
+    }
+
     /**
      * Finds or creates copier if it was not created yet.
      *
@@ -109,7 +227,11 @@ public class ReflectionCopierProvider implements CopierProvider {
      * @return copier
      */
     private ObjectCopier<?> findCopier(Class<?> type) {
-        return processAction(typePolicy.getAction(type), () -> findCopierForType(type));
+        ObjectCopier<?> copier = processAction(typePolicy.getAction(type), () -> findCopierForType(type));
+        if (copier instanceof TrivialCopier || !unshared.test(type)) {
+            return copier;
+        }
+        return new UnsharedCopier<>(copier);
     }
 
     /**
@@ -164,8 +286,141 @@ public class ReflectionCopierProvider implements CopierProvider {
         if (Copyable.class.isAssignableFrom(type)) {
             return ObjectCopier.COPYABLE;
         }
+        return findImplicitCopier(type);
+    }
+
+    /**
+     * Returns copier of the type which does not declare its copier: {@link ObjectCopier#NOOP} if the type is inferred
+     * to be immutable, the copier of the JDK configuration, or the copier which copies the type field by field.
+     *
+     * @param type object type
+     * @return object copier
+     */
+    private ObjectCopier<?> findImplicitCopier(Class<?> type) {
+        if (immutabilityAnalyzer != null && isInferredImmutable(type, new HashSet<>())) {
+            return ObjectCopier.NOOP;
+        }
         ObjectCopier<?> copier = JdkConfigurationHolder.CONFIGURATION.getCopier(type);
-        return copier != null ? copier : findReflectionCopier(type, shallows.contains(type));
+        return copier != null ? copier : findFieldwiseCopier(type);
+    }
+
+    /**
+     * Returns copier of the type which is copied field by field. The JDK immutable collections are copied with
+     * {@link ImmutableCollectionCopier}, the hash-based and the concurrent collections are copied with
+     * {@link HashMapCopier} or {@link HashSetCopier}, all of them use {@link ReflectionCopier} when the elements
+     * are changed by copying. The other types are copied with {@link ReflectionCopier}, which is wrapped into
+     * {@link ProfilingCopier} if the profile-guided specialization is enabled.
+     *
+     * @param type object type
+     * @return object copier
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private ObjectCopier<?> findFieldwiseCopier(Class<?> type) {
+        boolean shallow = shallows.contains(type);
+        ReflectionCopier copier = findReflectionCopier(type, shallow);
+        if (shallow) {
+            return copier;
+        }
+        if (IMMUTABLE_COLLECTION_TYPES.contains(type)) {
+            return new ImmutableCollectionCopier<>(copier);
+        }
+        UnaryOperator mapCopy = MAP_SHALLOW_COPIES.get(type);
+        if (mapCopy != null) {
+            return new HashMapCopier<>(mapCopy, copier);
+        }
+        UnaryOperator setCopy = SET_SHALLOW_COPIES.get(type);
+        if (setCopy != null) {
+            return new HashSetCopier<>(setCopy, copier);
+        }
+        if (profileMetrics != null && objectPolicy == null) {
+            return ProfilingCopier.of(type, copier, fieldCopierFactory, profileSamples, profileMetrics);
+        }
+        return copier;
+    }
+
+    /**
+     * Checks whether the type is immutable according to {@link #immutabilityAnalyzer} and the configuration permits
+     * to copy its instances by reference, i.e. the actions for the fields and the field types are either
+     * {@link CopyAction#DEFAULT} or {@link CopyAction#ORIGINAL}, and there are no custom copiers for the field types.
+     *
+     * @param type type
+     * @param visited types which have been checked already
+     * @return {@code true} if instances of the type can be copied by reference
+     */
+    private boolean isInferredImmutable(Class<?> type, Set<Class<?>> visited) {
+        if (!visited.add(type)) {
+            return true;
+        }
+        if (!immutabilityAnalyzer.isImmutable(type)) {
+            return false;
+        }
+        for (Class<?> t = type; t != null && t != Object.class; t = t.getSuperclass()) {
+            for (Field field : t.getDeclaredFields()) {
+                if (ReflectionUtils.isNonStatic(field) && !isInferredImmutable(field, visited)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the value of the immutable field can be copied by reference.
+     *
+     * @param field non-static field of the immutable type
+     * @param visited types which have been checked already
+     * @return {@code true} if the field value can be copied by reference
+     */
+    private boolean isInferredImmutable(Field field, Set<Class<?>> visited) {
+        CopyAction action = fieldPolicy.getAction(field);
+        Class<?> type = field.getType();
+        if (action == CopyAction.ORIGINAL || (action == CopyAction.DEFAULT && type.isPrimitive())) {
+            return true;
+        }
+        return action == CopyAction.DEFAULT && isCopiedByReference(type, visited);
+    }
+
+    /**
+     * Checks whether the instances of the type are copied by reference. Only the copiers created so far are looked up,
+     * so, the method can be called while a copier is being created.
+     *
+     * @param type type
+     * @param visited types which have been checked already
+     * @return {@code true} if instances of the type are known to be copied by reference
+     */
+    private boolean isCopiedByReference(Class<?> type, Set<Class<?>> visited) {
+        ObjectCopier<?> copier = copiers.getIfPresent(type);
+        if (copier != null) {
+            return copier == ObjectCopier.NOOP;
+        }
+        switch (typePolicy.getAction(type)) {
+            case ORIGINAL:
+                return true;
+            case DEFAULT:
+                return type.isEnum() || (immutabilityAnalyzer != null && type.getDeclaredAnnotation(TypeCopier.class) == null &&
+                    !Copyable.class.isAssignableFrom(type) && isInferredImmutable(type, visited));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Field policy of the reflection copiers. The field of a final type, whose instances are copied by reference
+     * (e.g. {@link String} or a boxed primitive), gets {@link CopyAction#ORIGINAL} action instead of
+     * {@link CopyAction#DEFAULT}, so, its value is not looked up in the copiers at all. The object policy may change
+     * the action for any object, so, the fields are not specialized if it is set.
+     *
+     * @param field field
+     * @return copy action
+     */
+    private CopyAction getFieldAction(Field field) {
+        CopyAction action = fieldPolicy.getAction(field);
+        Class<?> type = field.getType();
+        if (action == CopyAction.DEFAULT && objectPolicy == null && !type.isPrimitive() &&
+            Modifier.isFinal(type.getModifiers()) && isCopiedByReference(type, new HashSet<>())) {
+            return CopyAction.ORIGINAL;
+        }
+        return action;
     }
 
     /**
@@ -192,15 +447,38 @@ public class ReflectionCopierProvider implements CopierProvider {
      * @return copier instance
      */
     private ReflectionCopier<?> findReflectionCopier(Class<?> type, boolean shallow) {
-        Map.Entry<Class<?>, Boolean> key = (Map.Entry) Collections.singletonMap(type, shallow).entrySet().iterator().next();
-        ReflectionCopier<?> copier = reflectionCopiers.get(key);
-        if (copier == null) {
-            Class<?> superType = type.getSuperclass();
-            ReflectionCopier<?> parent = superType != null ? findReflectionCopier(superType, shallow) : null;
-            copier = new ReflectionCopier<>(fieldPolicy, allocator, type, fieldCopierFactory, parent, shallow);
-            reflectionCopiers.put(key, copier);
-        }
-        return copier;
+        return (shallow ? shallowReflectionCopiers : reflectionCopiers).get(type);
+    }
+
+    /**
+     * Creates {@link ReflectionCopier} instance for the type, or takes the instance with the same effective configuration
+     * from {@link CopierPlanCache}.
+     *
+     * @param type object type
+     * @param shallow shallow mode
+     * @return copier instance
+     */
+    private ReflectionCopier<?> createReflectionCopier(Class<?> type, boolean shallow) {
+        Class<?> superType = type.getSuperclass();
+        ReflectionCopier<?> parent = superType != null ? findReflectionCopier(superType, shallow) : null;
+        Map<Field, CopyAction> actions = new LinkedHashMap<>();
+        Arrays.stream(ReflectionUtils.getDeclaredFields(type))
+            .filter(ReflectionUtils::isNonStatic)
+            .forEach(field -> actions.put(field, getFieldAction(field)));
+        return CopierPlanCache.get(type, allocator, fieldCopierFactory, parent, shallow, actions);
+    }
+
+    /**
+     * Returns the shallow copy function which calls {@code clone()} method of the collection.
+     *
+     * @param <T> declared type of the collection
+     * @param <C> actual type of the collection
+     * @param clone {@code clone()} method
+     * @return shallow copy function
+     */
+    @SuppressWarnings("unchecked")
+    static <T, C extends T> UnaryOperator<T> cloneMethod(Function<C, Object> clone) {
+        return collection -> (T) clone.apply((C) collection);
     }
 
 }
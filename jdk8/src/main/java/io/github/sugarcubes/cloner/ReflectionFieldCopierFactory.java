@@ -63,10 +63,17 @@ public final class ReflectionFieldCopierFactory extends AbstractFieldCopierFacto
             case ORIGINAL:
                 return (original, clone, context) -> field.set(clone, field.get(original));
             case DEFAULT:
-                return (original, clone, context) -> field.set(clone, context.copy(field.get(original)));
+                return getReferenceFieldCopier(field, new InlineCopierCache());
             default:
                 throw Checks.mustNotHappen();
         }
     }
 
+    @Override
+    public FieldCopier getReferenceFieldCopier(Field field, ObjectCopier<Object> valueCopier) {
+        Checks.illegalArg(field.getType().isPrimitive(), "Field %s is primitive.", field);
+        ReflectionUtils.makeAccessible(field);
+        return (original, clone, context) -> field.set(clone, valueCopier.copy(field.get(original), context));
+    }
+
 }
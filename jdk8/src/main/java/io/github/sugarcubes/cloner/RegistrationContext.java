@@ -35,21 +35,34 @@ public final class RegistrationContext implements CopyContext {
     private final Object original;
 
     /**
-     * Cached clone reference.
+     * Table of the clones.
      */
-    private final Object[] cached;
+    private final CloneTable clones;
 
     /**
      * Creates registration context wrapper.
      *
      * @param context initial context
+     * @param clones table of the clones
      * @param original original
-     * @param cached cached clone reference
      */
-    public RegistrationContext(CopyContext context, Object original, Object[] cached) {
+    public RegistrationContext(CopyContext context, CloneTable clones, Object original) {
         this.context = context;
+        this.clones = clones;
         this.original = original;
-        this.cached = cached;
+    }
+
+    /**
+     * Creates registration context wrapper which registers the clone in the single cached slot.
+     *
+     * @param context initial context
+     * @param original original
+     * @param cached cached clone of the original, the clone is registered in the first element
+     * @deprecated use {@link #RegistrationContext(CopyContext, CloneTable, Object)}
+     */
+    @Deprecated
+    public RegistrationContext(CopyContext context, Object original, Object[] cached) {
+        this(context, new CachedClone(cached), original);
     }
 
     /**
@@ -64,10 +77,10 @@ public final class RegistrationContext implements CopyContext {
 
     @Override
     public <T> T register(T clone) {
-        if (clone == null || cached[0] != null) {
+        if (clone == null || clones.get(original) != null) {
             registrationMismatch();
         }
-        cached[0] = clone;
+        clones.put(original, clone);
         return clone;
     }
 
@@ -76,20 +89,86 @@ public final class RegistrationContext implements CopyContext {
         return context.copy(original);
     }
 
+    @Override
+    public <T> T copy(T original, ObjectCopier<T> copier) throws Exception {
+        return context.copy(original, copier);
+    }
+
+    @Override
+    public <T> ObjectCopier<T> getTypeCopier(Class<T> type) {
+        return context.getTypeCopier(type);
+    }
+
+    @Override
+    public CopierProvider getCopierProvider() {
+        return context.getCopierProvider();
+    }
+
     @Override
     public void thenInvoke(Callable<?> task) throws Exception {
         context.thenInvoke(task);
     }
 
+    @Override
+    public <T> void thenCopy(TwoPhaseObjectCopier<T> copier, T original, T clone) throws Exception {
+        context.thenCopy(copier, original, clone);
+    }
+
+    @Override
+    public int getSplitThreshold() {
+        return context.getSplitThreshold();
+    }
+
     /**
      * Checks that the cached clone is the same as returned from {@link #copy(Object)} method.
      *
      * @param clone clone
      */
     public void check(Object clone) {
-        if (cached[0] != clone) {
+        if (clones.get(original) != clone) {
             registrationMismatch();
         }
     }
 
+    /**
+     * Table of the clone of the single original, which is kept in the first element of the array.
+     */
+    private static final class CachedClone implements CloneTable {
+
+        /**
+         * Cached clone.
+         */
+        private final Object[] cached;
+
+        /**
+         * Creates table.
+         *
+         * @param cached cached clone
+         */
+        CachedClone(Object[] cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object get(Object original) {
+            return cached[0];
+        }
+
+        @Override
+        public void put(Object original, Object clone) {
+            cached[0] = clone;
+        }
+
+        @Override
+        public int size() {
+            return cached[0] != null ? 1 : 0;
+        }
+
+        @Override
+        public void clear() {
+            cached[0] = null;
+        }
+
+    }
+
 }
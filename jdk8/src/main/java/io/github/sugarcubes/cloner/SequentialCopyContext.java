@@ -15,11 +15,8 @@
  */
 package io.github.sugarcubes.cloner;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.function.Function;
 
 /**
  * Copy context for sequential copying.
@@ -31,13 +28,19 @@ public class SequentialCopyContext extends AbstractSingleThreadCopyContext {
     /**
      * Queue of actions to complete copying.
      */
-    private final Deque<Callable<?>> queue = new ArrayDeque<>();
+    private final CopyTaskQueue queue;
 
     /**
-     * Poll method for {@link #queue}.
-     * Depending on traversal algorithm can be {@link Deque#pollLast()} or {@link Deque#pollFirst()}.
+     * Creates an object instance.
+     *
+     * @param copierProvider copier provider
+     * @param predefined predefined cloned objects, see {@link #predefinedClones(Map)}
+     * @param traversalAlgorithm traversal algorithm
      */
-    private final Function<Deque<Callable<?>>, Callable<?>> poll;
+    public SequentialCopyContext(CopierProvider copierProvider, CloneTable predefined, TraversalAlgorithm traversalAlgorithm) {
+        super(copierProvider, predefined);
+        this.queue = new CopyTaskQueue(isLifo(traversalAlgorithm));
+    }
 
     /**
      * Creates an object instance.
@@ -45,25 +48,26 @@ public class SequentialCopyContext extends AbstractSingleThreadCopyContext {
      * @param copierProvider copier provider
      * @param clones predefined cloned objects
      * @param traversalAlgorithm traversal algorithm
+     * @deprecated use {@link #SequentialCopyContext(CopierProvider, CloneTable, TraversalAlgorithm)}
+     * with {@link #predefinedClones(Map)}, which builds the table once
      */
+    @Deprecated
     public SequentialCopyContext(CopierProvider copierProvider, Map<Object, Object> clones, TraversalAlgorithm traversalAlgorithm) {
-        super(copierProvider, clones);
-        this.poll = getPollMethod(traversalAlgorithm);
+        this(copierProvider, predefinedClones(clones), traversalAlgorithm);
     }
 
     /**
-     * Returns queue poll method for traversal algorithm.
+     * Returns whether the last queued action is completed first for the traversal algorithm.
      *
-     * @param <T> queue item type
      * @param traversalAlgorithm traversal algorithm
-     * @return queue poll method
+     * @return {@code true} for depth-first, {@code false} for breadth-first
      */
-    private <T> Function<Deque<T>, T> getPollMethod(TraversalAlgorithm traversalAlgorithm) {
+    private static boolean isLifo(TraversalAlgorithm traversalAlgorithm) {
         switch (traversalAlgorithm) {
             case DEPTH_FIRST:
-                return Deque::pollLast;
+                return true;
             case BREADTH_FIRST:
-                return Deque::pollFirst;
+                return false;
             default:
                 throw Checks.mustNotHappen();
         }
@@ -74,13 +78,38 @@ public class SequentialCopyContext extends AbstractSingleThreadCopyContext {
         queue.offer(task);
     }
 
+    @Override
+    public <T> void thenCopy(TwoPhaseObjectCopier<T> copier, T original, T clone) throws Exception {
+        queue.offer(copier, original, clone);
+    }
+
     @Override
     public void complete() throws Throwable {
-        Deque<Callable<?>> queue = this.queue;
-        Function<Deque<Callable<?>>, Callable<?>> poll = this.poll;
-        for (Callable<?> next; (next = poll.apply(queue)) != null; ) {
-            next.call();
+        CopyTaskQueue queue = this.queue;
+        while (!queue.isEmpty()) {
+            queue.runNext(this);
         }
     }
 
+    @Override
+    public void presize(int objects, int tasks) {
+        super.presize(objects, tasks);
+        queue.ensureCapacity(tasks);
+    }
+
+    /**
+     * Returns the maximal number of the delayed tasks since the last {@link #reset()}.
+     *
+     * @return high-water mark of the queue
+     */
+    public int getMaxQueueSize() {
+        return queue.getMaxSize();
+    }
+
+    @Override
+    public boolean reset() {
+        queue.clear();
+        return super.reset();
+    }
+
 }
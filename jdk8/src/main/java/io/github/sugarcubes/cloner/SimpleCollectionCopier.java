@@ -15,8 +15,10 @@
  */
 package io.github.sugarcubes.cloner;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.IntFunction;
 
 /**
@@ -32,13 +34,30 @@ public class SimpleCollectionCopier<T extends Collection<Object>> extends TwoPha
      */
     private final IntFunction<T> constructor;
 
+    /**
+     * Whether the elements copied to {@code null} are skipped, for the collections which do not allow {@code null}.
+     */
+    private final boolean skipNulls;
+
     /**
      * Creates copier.
      *
      * @param constructor collection constructor
      */
     public SimpleCollectionCopier(IntFunction<T> constructor) {
+        this(constructor, false);
+    }
+
+    /**
+     * Creates copier.
+     *
+     * @param constructor collection constructor
+     * @param skipNulls whether the elements copied to {@code null} are skipped, must be {@code true} for the collections
+     * which do not allow {@code null} elements
+     */
+    public SimpleCollectionCopier(IntFunction<T> constructor, boolean skipNulls) {
         this.constructor = constructor;
+        this.skipNulls = skipNulls;
     }
 
     @Override
@@ -49,10 +68,23 @@ public class SimpleCollectionCopier<T extends Collection<Object>> extends TwoPha
     @Override
     public void deepCopy(T original, T clone, CopyContext context) throws Exception {
         Object[] array = original.toArray();
-        for (int k = 0, length = array.length; k < length; k++) {
-            array[k] = context.copy(array[k]);
+        copyElements(array, array, context, () -> clone.addAll(skipNulls ? nonNulls(array) : Arrays.asList(array)));
+    }
+
+    /**
+     * Returns the non-null elements of the array.
+     *
+     * @param array array
+     * @return list of the non-null elements
+     */
+    private static List<Object> nonNulls(Object[] array) {
+        List<Object> list = new ArrayList<>(array.length);
+        for (Object element : array) {
+            if (element != null) {
+                list.add(element);
+            }
         }
-        clone.addAll(Arrays.asList(array));
+        return list;
     }
 
 }
@@ -132,6 +132,11 @@ class SunMiscUnsafeBridge implements UnsafeBridge {
         return (T) unsafe.allocateInstance(cls);
     }
 
+    @Override
+    public Class<?> defineAnonymousClass(Class<?> hostClass, byte[] data, Object[] cpPatches) {
+        return unsafe.defineAnonymousClass(hostClass, data, cpPatches);
+    }
+
     @Override
     public void throwException(Throwable ee) {
         unsafe.throwException(ee);
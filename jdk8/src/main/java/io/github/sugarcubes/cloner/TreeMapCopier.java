@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Copier for {@link TreeMap}. The entries of the original map are copied into an array in the sorted order,
+ * then the clone is built from the array with {@link TreeMap#putAll(Map)}, which builds the tree in linear time
+ * without calling the comparator, if the argument is a {@link SortedMap} with the same comparator. So, the keys
+ * are never compared, and it does not matter whether the clones of the keys are completely copied at that moment.
+ * The clone keeps the comparator of the original map.
+ *
+ * @author Maxim Butov
+ */
+public class TreeMapCopier extends TwoPhaseObjectCopier<TreeMap<Object, Object>> {
+
+    @Override
+    public TreeMap<Object, Object> allocate(TreeMap<Object, Object> original) throws Exception {
+        return new TreeMap<>(original.comparator());
+    }
+
+    @Override
+    public void deepCopy(TreeMap<Object, Object> original, TreeMap<Object, Object> clone, CopyContext context)
+        throws Exception {
+        Object[] entries = new Object[original.size() << 1];
+        int index = 0;
+        for (Map.Entry<Object, Object> entry : original.entrySet()) {
+            entries[index++] = entry.getKey();
+            entries[index++] = entry.getValue();
+        }
+        copyElements(entries, entries, context, () -> {
+            clone.putAll(new SortedEntries(entries, clone.comparator()));
+            return null;
+        });
+    }
+
+    /**
+     * Read-only sorted map view of the array of keys and values, which is only suitable as an argument
+     * of {@link TreeMap#putAll(Map)}.
+     */
+    private static final class SortedEntries extends AbstractMap<Object, Object> implements SortedMap<Object, Object> {
+
+        /**
+         * Keys and values in the sorted order.
+         */
+        private final Object[] entries;
+
+        /**
+         * Comparator.
+         */
+        private final Comparator<Object> comparator;
+
+        /**
+         * Creates view.
+         *
+         * @param entries keys and values in the sorted order
+         * @param comparator comparator
+         */
+        SortedEntries(Object[] entries, Comparator<? super Object> comparator) {
+            this.entries = entries;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Comparator<? super Object> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public Set<Entry<Object, Object>> entrySet() {
+            return new AbstractSet<Entry<Object, Object>>() {
+
+                @Override
+                public Iterator<Entry<Object, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return entries.length >> 1;
+                }
+
+            };
+        }
+
+        /**
+         * Iterator over the entries of the view.
+         */
+        private final class EntryIterator implements Iterator<Entry<Object, Object>> {
+
+            /**
+             * Index of the next key in {@link #entries}.
+             */
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < entries.length;
+            }
+
+            @Override
+            public Entry<Object, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<Object, Object> entry = new SimpleImmutableEntry<>(entries[index], entries[index + 1]);
+                index += 2;
+                return entry;
+            }
+
+        }
+
+        @Override
+        public Object firstKey() {
+            if (entries.length == 0) {
+                throw new NoSuchElementException();
+            }
+            return entries[0];
+        }
+
+        @Override
+        public Object lastKey() {
+            if (entries.length == 0) {
+                throw new NoSuchElementException();
+            }
+            return entries[entries.length - 2];
+        }
+
+        @Override
+        public SortedMap<Object, Object> subMap(Object fromKey, Object toKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedMap<Object, Object> headMap(Object toKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedMap<Object, Object> tailMap(Object fromKey) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Copier for {@link TreeSet}. The elements of the original set are copied into an array in the sorted order,
+ * then the clone is built from the array with {@link TreeSet#addAll(Collection)}, which builds the tree in linear time
+ * without calling the comparator, if the argument is a {@link SortedSet} with the same comparator.
+ * The clone keeps the comparator of the original set.
+ *
+ * @author Maxim Butov
+ */
+public class TreeSetCopier extends TwoPhaseObjectCopier<TreeSet<Object>> {
+
+    @Override
+    public TreeSet<Object> allocate(TreeSet<Object> original) throws Exception {
+        return new TreeSet<>(original.comparator());
+    }
+
+    @Override
+    public void deepCopy(TreeSet<Object> original, TreeSet<Object> clone, CopyContext context) throws Exception {
+        Object[] elements = original.toArray();
+        copyElements(elements, elements, context, () -> clone.addAll(new SortedElements(elements, clone.comparator())));
+    }
+
+    /**
+     * Read-only sorted set view of the array of elements, which is only suitable as an argument
+     * of {@link TreeSet#addAll(Collection)}.
+     */
+    private static final class SortedElements extends AbstractSet<Object> implements SortedSet<Object> {
+
+        /**
+         * Elements in the sorted order.
+         */
+        private final Object[] elements;
+
+        /**
+         * Comparator.
+         */
+        private final Comparator<Object> comparator;
+
+        /**
+         * Creates view.
+         *
+         * @param elements elements in the sorted order
+         * @param comparator comparator
+         */
+        SortedElements(Object[] elements, Comparator<? super Object> comparator) {
+            this.elements = elements;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public Comparator<? super Object> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return Arrays.asList(elements).iterator();
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public Object first() {
+            if (elements.length == 0) {
+                throw new NoSuchElementException();
+            }
+            return elements[0];
+        }
+
+        @Override
+        public Object last() {
+            if (elements.length == 0) {
+                throw new NoSuchElementException();
+            }
+            return elements[elements.length - 1];
+        }
+
+        @Override
+        public SortedSet<Object> subSet(Object fromElement, Object toElement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedSet<Object> headSet(Object toElement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SortedSet<Object> tailSet(Object fromElement) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -15,23 +15,32 @@
  */
 package io.github.sugarcubes.cloner;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Two-phase copier.
+ * <p>
+ * Unless {@link #copy(Object, CopyContext)} is overridden, the copy context calls {@link #allocate(Object)} itself,
+ * registers the clone and schedules {@link #deepCopy(Object, Object, CopyContext)} with
+ * {@link CopyContext#thenCopy(TwoPhaseObjectCopier, Object, Object)}, so, no wrappers are allocated per object.
  *
  * @author Maxim Butov
  */
 public abstract class TwoPhaseObjectCopier<T> implements ObjectCopier<T> {
 
+    /**
+     * Whether {@link #copy(Object, CopyContext)} is not overridden, so the context may perform it without
+     * the checks of the registration.
+     */
+    final boolean standard = ClonerExceptionUtils.replaceException(() ->
+        getClass().getMethod("copy", Object.class, CopyContext.class).getDeclaringClass() == TwoPhaseObjectCopier.class);
+
     @Override
     public T copy(T original, CopyContext context) throws Exception {
         T clone = allocate(original);
         context.register(clone);
-        context.thenInvoke(
-            () -> {
-                deepCopy(original, clone, context);
-                return null;
-            }
-        );
+        context.thenCopy(this, original, clone);
         return clone;
     }
 
@@ -54,4 +63,60 @@ public abstract class TwoPhaseObjectCopier<T> implements ObjectCopier<T> {
      */
     public abstract void deepCopy(T original, T clone, CopyContext context) throws Exception;
 
+    /**
+     * Copies the elements of the original array into the clone array, then invokes the final task.
+     * If the array is larger than {@link CopyContext#getSplitThreshold()}, it is split into the ranges, and every range
+     * is copied by a separate task, so, the ranges are filled concurrently in parallel mode. The final task is
+     * invoked by the task which completes the last range.
+     *
+     * @param original original array
+     * @param clone clone array, may be the same as the original
+     * @param context copying context
+     * @param then final task, nullable
+     * @throws Exception if something went wrong
+     */
+    protected static void copyElements(Object[] original, Object[] clone, CopyContext context, Callable<?> then)
+        throws Exception {
+        int length = original.length;
+        int threshold = context.getSplitThreshold();
+        if (length <= threshold) {
+            copyRange(original, clone, context, 0, length);
+            if (then != null) {
+                then.call();
+            }
+            return;
+        }
+        AtomicInteger remaining = new AtomicInteger((length - 1) / threshold + 1);
+        for (int start = 0; start < length; start += threshold) {
+            int from = start;
+            int to = Math.min(length, start + threshold);
+            context.thenInvoke(
+                () -> {
+                    copyRange(original, clone, context, from, to);
+                    if (remaining.decrementAndGet() == 0 && then != null) {
+                        then.call();
+                    }
+                    return null;
+                }
+            );
+        }
+    }
+
+    /**
+     * Copies the range of the elements of the original array into the clone array.
+     *
+     * @param original original array
+     * @param clone clone array
+     * @param context copying context
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     * @throws Exception if something went wrong
+     */
+    private static void copyRange(Object[] original, Object[] clone, CopyContext context, int from, int to)
+        throws Exception {
+        for (int k = from; k < to; k++) {
+            clone[k] = context.copy(original[k]);
+        }
+    }
+
 }
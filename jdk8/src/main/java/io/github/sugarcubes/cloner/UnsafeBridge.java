@@ -66,6 +66,8 @@ interface UnsafeBridge {
 
     <T> T allocateInstance(Class<T> cls) throws InstantiationException;
 
+    Class<?> defineAnonymousClass(Class<?> hostClass, byte[] data, Object[] cpPatches);
+
     void throwException(Throwable ee);
 
 }
@@ -69,11 +69,18 @@ public final class UnsafeFieldCopierFactory extends AbstractFieldCopierFactory {
             case ORIGINAL:
                 return (original, clone, context) -> unsafe.putObject(clone, offset, unsafe.getObject(original, offset));
             case DEFAULT:
-                return (original, clone, context) ->
-                    unsafe.putObject(clone, offset, context.copy(unsafe.getObject(original, offset)));
+                return getReferenceFieldCopier(field, new InlineCopierCache());
             default:
                 throw Checks.mustNotHappen();
         }
     }
 
+    @Override
+    public FieldCopier getReferenceFieldCopier(Field field, ObjectCopier<Object> valueCopier) {
+        Checks.illegalArg(field.getType().isPrimitive(), "Field %s is primitive.", field);
+        long offset = unsafe.objectFieldOffset(field);
+        return (original, clone, context) ->
+            unsafe.putObject(clone, offset, valueCopier.copy(unsafe.getObject(original, offset), context));
+    }
+
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that the instances of the type are never shared, i.e. every instance is referenced at most once
+ * in the cloned object graph, and there are no cycles through the instances. The cloner does not track identity
+ * of such objects, so, it does not look up and does not register them in the table of the clones.
+ * <p>
+ * If the promise is violated, a shared object is silently copied twice (and a cycle never ends). When Java
+ * assertions are enabled for the cloner package, the violation is detected and {@link ClonerException} is thrown.
+ *
+ * @author Maxim Butov
+ * @see ReflectionClonerBuilder#unshared(Class)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Unshared {
+
+}
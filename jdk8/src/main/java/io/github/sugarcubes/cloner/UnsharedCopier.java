@@ -0,0 +1,46 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+/**
+ * Wrapper of the copier for the types, which instances are never shared. Copy context does not track identity
+ * of the objects copied with such a copier.
+ *
+ * @author Maxim Butov
+ * @see Unshared
+ */
+public final class UnsharedCopier<T> implements ObjectCopier<T> {
+
+    /**
+     * Actual copier.
+     */
+    private final ObjectCopier<T> copier;
+
+    /**
+     * Creates wrapper for the copier.
+     *
+     * @param copier actual copier
+     */
+    public UnsharedCopier(ObjectCopier<T> copier) {
+        this.copier = Checks.argNotNull(copier, "Copier");
+    }
+
+    @Override
+    public T copy(T original, CopyContext context) throws Exception {
+        return copier.copy(original, context);
+    }
+
+}
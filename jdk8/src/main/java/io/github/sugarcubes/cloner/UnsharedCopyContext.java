@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A copy context for the objects which are never shared. Registration does nothing, since such objects
+ * are not tracked.
+ *
+ * @author Maxim Butov
+ * @see UnsharedCopier
+ */
+final class UnsharedCopyContext implements CopyContext {
+
+    /**
+     * Initial copy context.
+     */
+    private final CopyContext context;
+
+    /**
+     * Creates context wrapper.
+     *
+     * @param context initial context
+     */
+    UnsharedCopyContext(CopyContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public <T> T register(T clone) {
+        return clone;
+    }
+
+    @Override
+    public <T> T copy(T original) throws Exception {
+        return context.copy(original);
+    }
+
+    @Override
+    public <T> T copy(T original, ObjectCopier<T> copier) throws Exception {
+        return context.copy(original, copier);
+    }
+
+    @Override
+    public <T> ObjectCopier<T> getTypeCopier(Class<T> type) {
+        return context.getTypeCopier(type);
+    }
+
+    @Override
+    public CopierProvider getCopierProvider() {
+        return context.getCopierProvider();
+    }
+
+    @Override
+    public void thenInvoke(Callable<?> task) throws Exception {
+        context.thenInvoke(task);
+    }
+
+    @Override
+    public <T> void thenCopy(TwoPhaseObjectCopier<T> copier, T original, T clone) throws Exception {
+        context.thenCopy(copier, original, clone);
+    }
+
+    @Override
+    public int getSplitThreshold() {
+        return context.getSplitThreshold();
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the warm-up of the copiers, see {@link ReflectionClonerBuilder#warmUp(Class[])}. The metrics describe
+ * the last warm-up performed with them.
+ *
+ * @author Maxim Butov
+ */
+public final class WarmUpMetrics {
+
+    /**
+     * Types which copiers have been created.
+     */
+    private Set<Class<?>> preparedTypes = Collections.emptySet();
+
+    /**
+     * Types which copiers could not be created.
+     */
+    private Set<Class<?>> failedTypes = Collections.emptySet();
+
+    /**
+     * Duration of the warm-up in nanoseconds.
+     */
+    private long nanos;
+
+    /**
+     * Registers the result of the warm-up.
+     *
+     * @param preparedTypes types which copiers have been created
+     * @param failedTypes types which copiers could not be created
+     * @param nanos duration of the warm-up in nanoseconds
+     */
+    synchronized void completed(Set<Class<?>> preparedTypes, Set<Class<?>> failedTypes, long nanos) {
+        this.preparedTypes = Collections.unmodifiableSet(new LinkedHashSet<>(preparedTypes));
+        this.failedTypes = Collections.unmodifiableSet(new LinkedHashSet<>(failedTypes));
+        this.nanos = nanos;
+    }
+
+    /**
+     * Returns the types which copiers have been created, including the root types and the types reachable from them.
+     *
+     * @return prepared types
+     */
+    public synchronized Set<Class<?>> getPreparedTypes() {
+        return preparedTypes;
+    }
+
+    /**
+     * Returns the number of the types which copiers have been created.
+     *
+     * @return number of the prepared types
+     */
+    public synchronized int getPreparedCount() {
+        return preparedTypes.size();
+    }
+
+    /**
+     * Returns the types which copiers could not be created. The error is thrown again when such a type is copied.
+     *
+     * @return failed types
+     */
+    public synchronized Set<Class<?>> getFailedTypes() {
+        return failedTypes;
+    }
+
+    /**
+     * Returns the duration of the warm-up.
+     *
+     * @param unit time unit
+     * @return duration in the units
+     */
+    public synchronized long getDuration(TimeUnit unit) {
+        return unit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("WarmUpMetrics[prepared=%d, failed=%d, duration=%dms]",
+            preparedTypes.size(), failedTypes.size(), getDuration(TimeUnit.MILLISECONDS));
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.EnumSet;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Shared fixtures of the cloner tests.
+ *
+ * @author Maxim Butov
+ */
+final class ClonerFixtures {
+
+    /**
+     * Mutable value, which is copied by the cloners.
+     */
+    static class Value {
+        int value;
+
+        Value(int value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Runs the test with the cloners of all the modes, except {@link CloningMode#VIRTUAL}, and with the parallel cloner
+     * which splits the collections into small ranges.
+     *
+     * @param consumer test
+     */
+    static void forAllModes(Consumer<Cloner> consumer) {
+        forAllModes(Cloners::builder, consumer);
+    }
+
+    /**
+     * Runs the test with the cloners of all the modes, except {@link CloningMode#VIRTUAL}, and with the parallel cloner
+     * which splits the collections into small ranges, configured by the builder.
+     *
+     * @param builder supplier of the configured builders
+     * @param consumer test
+     */
+    static void forAllModes(Supplier<ReflectionClonerBuilder> builder, Consumer<Cloner> consumer) {
+        forAllModeBuilders(builder, modeBuilder -> consumer.accept(modeBuilder.get().build()));
+    }
+
+    /**
+     * Runs the test with the builders of all the modes, except {@link CloningMode#VIRTUAL}, and with the builder
+     * of the parallel cloner which splits the collections into small ranges, for the tests which configure the builders
+     * further.
+     *
+     * @param builder supplier of the configured builders
+     * @param consumer test
+     */
+    static void forAllModeBuilders(Supplier<ReflectionClonerBuilder> builder, Consumer<Supplier<ReflectionClonerBuilder>> consumer) {
+        for (CloningMode mode : EnumSet.complementOf(EnumSet.of(CloningMode.VIRTUAL))) {
+            consumer.accept(() -> builder.get().mode(mode));
+        }
+        consumer.accept(() -> builder.get().mode(CloningMode.PARALLEL).splitThreshold(4));
+    }
+
+    private ClonerFixtures() {
+    }
+
+}
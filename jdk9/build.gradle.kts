@@ -28,4 +28,5 @@ java {
 
 jmh {
     jvmArgs.addAll(utils.modulesJvmArgs("--add-opens"))
+    profilers.add("gc")
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for cloning of many requests which share the reference data: one by one vs in a batch.
+ *
+ * @author Maxim Butov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@SuppressWarnings("checkstyle:all")
+public class CloneAllBenchmark {
+
+    static class Request {
+        int id;
+        String name;
+        Map<String, Integer> reference;
+    }
+
+    private Cloner sequential;
+    private Cloner parallel;
+
+    private List<Request> requests;
+
+    @Setup
+    public void setup() {
+
+        sequential = Cloners.builder().build();
+        parallel = Cloners.builder().mode(CloningMode.PARALLEL).build();
+
+        Map<String, Integer> reference = new HashMap<>();
+        for (int k = 0; k < 100; k++) {
+            reference.put("key" + k, k);
+        }
+        requests = new ArrayList<>();
+        for (int k = 0; k < 10_000; k++) {
+            Request request = new Request();
+            request.id = k;
+            request.name = "request" + k;
+            request.reference = reference;
+            requests.add(request);
+        }
+
+    }
+
+    @Benchmark
+    public Object oneByOne() {
+        List<Request> clones = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            clones.add(sequential.clone(request));
+        }
+        return clones;
+    }
+
+    @Benchmark
+    public Object cloneAll() {
+        return sequential.cloneAll(requests);
+    }
+
+    @Benchmark
+    public Object parallelCloneAll() {
+        return parallel.cloneAll(requests);
+    }
+
+}
@@ -49,9 +49,11 @@ public class ClonersBenchmark {
     private Cloner serialization;
     private Cloner reflection;
     private Cloner recursive;
+    private Cloner hybrid;
     private Cloner unsafe;
     private Cloner parallel;
     private Cloner varhandle;
+    private Cloner bytecode;
     private Kryo kryo;
     private com.rits.cloning.Cloner kk;
 
@@ -63,9 +65,11 @@ public class ClonersBenchmark {
         serialization = Cloners.serialization();
         reflection = Cloners.builder().build();
         recursive = Cloners.builder().mode(CloningMode.RECURSIVE).build();
+        hybrid = Cloners.builder().mode(CloningMode.HYBRID).build();
         unsafe = Cloners.builder().unsafe().build();
         parallel = Cloners.builder().mode(CloningMode.PARALLEL).build();
         varhandle = Cloners.builder().fieldCopierFactory(new VarHandleFieldCopierFactory()).build();
+        bytecode = Cloners.builder().bytecode().build();
         kryo = new Kryo();
         kryo.setRegistrationRequired(false);
         kk = new com.rits.cloning.Cloner();
@@ -91,6 +95,11 @@ public class ClonersBenchmark {
         recursive.clone(sample);
     }
 
+    @Benchmark
+    public void hybrid() {
+        hybrid.clone(sample);
+    }
+
     @Benchmark
     public void unsafe() {
         unsafe.clone(sample);
@@ -106,6 +115,11 @@ public class ClonersBenchmark {
         varhandle.clone(sample);
     }
 
+    @Benchmark
+    public void bytecode() {
+        bytecode.clone(sample);
+    }
+
     @Benchmark
     public void kryo() {
         kryo.copy(sample);
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the concurrent clone tables: all the threads claim the same originals, so every original
+ * is contended. {@code map} is the map of {@link IdentityReference}s, which was used before.
+ *
+ * @author Maxim Butov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@SuppressWarnings("checkstyle:all")
+public class ConcurrentCloneTableBenchmark {
+
+    @Param({"8", "16", "32", "64"})
+    private int threads;
+
+    private ExecutorService executor;
+
+    private Object[] originals;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(threads);
+        originals = new Object[100_000];
+        for (int k = 0; k < originals.length; k++) {
+            originals[k] = new Object();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private void run(Runnable task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int k = 0; k < threads; k++) {
+            futures.add(executor.submit(task));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    @Benchmark
+    public Object table() throws Exception {
+        CloneTable table = new ConcurrentCloneTable();
+        run(() -> {
+            for (Object original : originals) {
+                if (table.claim(original) == null) {
+                    table.put(original, original);
+                }
+            }
+        });
+        return table;
+    }
+
+    @Benchmark
+    public Object map() throws Exception {
+        Map<IdentityReference<Object>, Object> map = new ConcurrentHashMap<>();
+        run(() -> {
+            for (Object original : originals) {
+                synchronized (original) {
+                    IdentityReference<Object> key = new IdentityReference<>(original);
+                    if (map.get(key) == null) {
+                        map.put(key, original);
+                    }
+                }
+            }
+        });
+        return map;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for field copier factories on the objects with primitive fields.
+ *
+ * @author Maxim Butov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1)
+@Warmup(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@SuppressWarnings("checkstyle:all")
+public class FieldCopiersBenchmark {
+
+    static class Primitives5 {
+        long f0;
+        int f1;
+        double f2;
+        short f3;
+        byte f4;
+    }
+
+    static class Primitives20 {
+        long f0, f8, f16;
+        int f1, f9, f17;
+        double f2, f10, f18;
+        short f3, f11, f19;
+        byte f4, f12;
+        float f5, f13;
+        char f6, f14;
+        boolean f7, f15;
+    }
+
+    static class Primitives100 {
+        long f0, f8, f16, f24, f32, f40, f48, f56, f64, f72, f80, f88, f96;
+        int f1, f9, f17, f25, f33, f41, f49, f57, f65, f73, f81, f89, f97;
+        double f2, f10, f18, f26, f34, f42, f50, f58, f66, f74, f82, f90, f98;
+        short f3, f11, f19, f27, f35, f43, f51, f59, f67, f75, f83, f91, f99;
+        byte f4, f12, f20, f28, f36, f44, f52, f60, f68, f76, f84, f92;
+        float f5, f13, f21, f29, f37, f45, f53, f61, f69, f77, f85, f93;
+        char f6, f14, f22, f30, f38, f46, f54, f62, f70, f78, f86, f94;
+        boolean f7, f15, f23, f31, f39, f47, f55, f63, f71, f79, f87, f95;
+    }
+
+    @Param({"5", "20", "100"})
+    private int fields;
+
+    private Cloner unsafe;
+    private Cloner bulk;
+
+    private Object sample;
+
+    @Setup
+    public void setup() {
+
+        unsafe = Cloners.builder().unsafe().build();
+        bulk = Cloners.builder().bulk().build();
+
+        switch (fields) {
+            case 5:
+                sample = new Primitives5();
+                break;
+            case 20:
+                sample = new Primitives20();
+                break;
+            case 100:
+                sample = new Primitives100();
+                break;
+            default:
+                throw new IllegalArgumentException();
+        }
+
+    }
+
+    @Benchmark
+    public Object unsafe() {
+        return unsafe.clone(sample);
+    }
+
+    @Benchmark
+    public Object bulk() {
+        return bulk.clone(sample);
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for cloning of a large object graph. Run with the GC profiler to see the allocation rate.
+ *
+ * @author Maxim Butov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@SuppressWarnings("checkstyle:all")
+public class GraphBenchmark {
+
+    static class Node {
+        int value;
+        Node next;
+    }
+
+    private Cloner reflection;
+    private Cloner bfs;
+    private Cloner unsafe;
+    private Cloner parallel;
+    private Cloner split;
+
+    private Object sample;
+
+    @Setup
+    public void setup() {
+
+        reflection = Cloners.builder().build();
+        bfs = Cloners.builder().traversalAlgorithm(TraversalAlgorithm.BREADTH_FIRST).build();
+        unsafe = Cloners.builder().unsafe().build();
+        parallel = Cloners.builder().mode(CloningMode.PARALLEL).splitThreshold(Integer.MAX_VALUE).build();
+        split = Cloners.builder().mode(CloningMode.PARALLEL).build();
+
+        Random random = new Random(0);
+        List<Node> nodes = new ArrayList<>();
+        for (int k = 0; k < 1_000_000; k++) {
+            Node node = new Node();
+            node.value = k;
+            nodes.add(node);
+        }
+        nodes.forEach(node -> node.next = nodes.get(random.nextInt(nodes.size())));
+        sample = nodes;
+
+    }
+
+    @Benchmark
+    public Object reflection() {
+        return reflection.clone(sample);
+    }
+
+    @Benchmark
+    public Object bfs() {
+        return bfs.clone(sample);
+    }
+
+    @Benchmark
+    public Object unsafe() {
+        return unsafe.clone(sample);
+    }
+
+    @Benchmark
+    public Object parallel() {
+        return parallel.clone(sample);
+    }
+
+    @Benchmark
+    public Object split() {
+        return split.clone(sample);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for cloning of {@link HashMap} with {@link HashMapCopier} and with the reflection copier. The subclass
+ * of {@link HashMap} has no copier of its own, so, it is copied field by field, node by node.
+ *
+ * @author Maxim Butov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@SuppressWarnings("checkstyle:all")
+public class HashMapBenchmark {
+
+    static class Value {
+        int value;
+    }
+
+    static class ReflectiveHashMap<K, V> extends HashMap<K, V> {
+    }
+
+    @Param({"1000", "1000000"})
+    private int size;
+
+    private Cloner cloner;
+
+    private Map<String, Value> specialized;
+    private Map<String, Value> reflective;
+
+    @Setup
+    public void setup() {
+        cloner = Cloners.builder().build();
+        specialized = new HashMap<>();
+        reflective = new ReflectiveHashMap<>();
+        for (int k = 0; k < size; k++) {
+            Value value = new Value();
+            value.value = k;
+            specialized.put("key" + k, value);
+            reflective.put("key" + k, value);
+        }
+    }
+
+    @Benchmark
+    public Object specialized() {
+        return cloner.clone(specialized);
+    }
+
+    @Benchmark
+    public Object reflective() {
+        return cloner.clone(reflective);
+    }
+
+}
@@ -36,6 +36,7 @@ class ProfilingTest {
     private final Cloner parallel = Cloners.builder().mode(CloningMode.PARALLEL).build();
     private final Cloner recursive = Cloners.builder().mode(CloningMode.RECURSIVE).build();
     private final Cloner varhandle = Cloners.builder().fieldCopierFactory(new VarHandleFieldCopierFactory()).build();
+    private final Cloner bytecode = Cloners.builder().bytecode().build();
 
     private final Kryo kryo = new Kryo();
     private final com.rits.cloning.Cloner kk = new com.rits.cloning.Cloner();
@@ -56,6 +57,7 @@ class ProfilingTest {
         parallel();
         recursive();
         varhandle();
+        bytecode();
         kryo();
         kk();
     }
@@ -84,6 +86,10 @@ class ProfilingTest {
         measure("varhandle", () -> varhandle.clone(sample));
     }
 
+    void bytecode() {
+        measure("bytecode", () -> bytecode.clone(sample));
+    }
+
     void kryo() {
         measure("kryo", () -> kryo.copy(sample));
     }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for cloning of a deep and wide tree.
+ *
+ * @author Maxim Butov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@SuppressWarnings("checkstyle:all")
+public class TreeBenchmark {
+
+    static class Node {
+        int value;
+        Node[] children;
+    }
+
+    static Node tree(int depth, int width) {
+        Node node = new Node();
+        node.value = depth;
+        node.children = new Node[depth > 0 ? width : 0];
+        for (int k = 0; k < node.children.length; k++) {
+            node.children[k] = tree(depth - 1, width);
+        }
+        return node;
+    }
+
+    private Cloner reflection;
+    private Cloner tree;
+    private Cloner unsafeTree;
+
+    private Object sample;
+
+    @Setup
+    public void setup() {
+
+        reflection = Cloners.builder().build();
+        tree = Cloners.builder().tree().build();
+        unsafeTree = Cloners.builder().unsafe().tree().build();
+
+        sample = tree(7, 6);
+
+    }
+
+    @Benchmark
+    public Object reflection() {
+        return reflection.clone(sample);
+    }
+
+    @Benchmark
+    public Object tree() {
+        return tree.clone(sample);
+    }
+
+    @Benchmark
+    public Object unsafeTree() {
+        return unsafeTree.clone(sample);
+    }
+
+}
@@ -32,6 +32,11 @@ class JdkConfigurationImpl$Jdk9 extends JdkConfigurationImpl$Jdk8 {
 
     public JdkConfigurationImpl$Jdk9() {
         systemWideSingletons.addAll(Arrays.asList(List.of(), Set.of(), Map.of()));
+        immutableCollectionTypes.addAll(Arrays.asList(
+            List.of(0).getClass(), List.of(0, 1, 2).getClass(), List.of(0, 1, 2).subList(0, 1).getClass(),
+            Set.of(0).getClass(), Set.of(0, 1, 2).getClass(),
+            Map.of(0, 0).getClass(), Map.of(0, 0, 1, 1).getClass()
+        ));
     }
 
     @Override
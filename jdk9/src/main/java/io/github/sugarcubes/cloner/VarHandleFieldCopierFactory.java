@@ -47,10 +47,27 @@ public final class VarHandleFieldCopierFactory implements FieldCopierFactory {
             case ORIGINAL:
                 return (original, clone, context) -> handle.set(clone, handle.get(original));
             case DEFAULT:
-                return (original, clone, context) -> handle.set(clone, context.copy(handle.get(original)));
+                return getReferenceFieldCopier(handle, new InlineCopierCache());
             default:
                 throw Checks.mustNotHappen();
         }
     }
 
+    @Override
+    public FieldCopier getReferenceFieldCopier(Field field, ObjectCopier<Object> valueCopier) {
+        Checks.illegalArg(field.getType().isPrimitive(), "Field %s is primitive.", field);
+        return getReferenceFieldCopier(ClonerExceptionUtils.replaceException(() -> LOOKUP.unreflectVarHandle(field)), valueCopier);
+    }
+
+    /**
+     * Returns copier of the reference field, which copies the field value with the value copier.
+     *
+     * @param handle field handle
+     * @param valueCopier copier of the field value
+     * @return field copier
+     */
+    private static FieldCopier getReferenceFieldCopier(VarHandle handle, ObjectCopier<Object> valueCopier) {
+        return (original, clone, context) -> handle.set(clone, valueCopier.copy(handle.get(original), context));
+    }
+
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+class AdaptiveReflectionClonerTest extends AbstractClonerTests {
+
+    public AdaptiveReflectionClonerTest() {
+        super(Cloners.builder().mode(CloningMode.ADAPTIVE).build());
+    }
+
+    static class Node {
+        Node next;
+    }
+
+    private static Node chain(int length) {
+        Node head = null;
+        for (int k = 0; k < length; k++) {
+            Node node = new Node();
+            node.next = head;
+            head = node;
+        }
+        return head;
+    }
+
+    @Test
+    void testDecisions() {
+        AdaptiveCloner cloner = (AdaptiveCloner) Cloners.builder()
+            .mode(CloningMode.ADAPTIVE)
+            .recursionDepth(100)
+            .parallelThreshold(10_000)
+            .build();
+
+        assertThat(cloner.getDecision(Node.class).getMode(), equalTo(CloningMode.HYBRID));
+        assertThat(cloner.getDecision(Node.class).getSamples(), equalTo(0L));
+
+        cloner.clone(chain(10));
+        AdaptiveCloner.Decision shallow = cloner.getDecision(Node.class);
+        assertThat(shallow.getMode(), equalTo(CloningMode.HYBRID));
+        assertThat(shallow.getSamples(), equalTo(1L));
+        assertThat(shallow.getObjects(), equalTo(10));
+        assertThat(shallow.getMaxDepth(), equalTo(10));
+
+        cloner.clone(chain(1000));
+        AdaptiveCloner.Decision deep = cloner.getDecision(Node.class);
+        assertThat(deep.getMode(), equalTo(CloningMode.SEQUENTIAL));
+        assertThat(deep.getMaxDepth(), equalTo(100));
+
+        List<Object> list = new ArrayList<>();
+        for (int k = 0; k < 100_000; k++) {
+            list.add(new Object());
+        }
+        cloner.clone(list);
+        assertThat(cloner.getDecision(ArrayList.class).getMode(), equalTo(CloningMode.PARALLEL));
+        List<Object> clone = cloner.clone(list);
+        assertThat(clone.size(), equalTo(list.size()));
+        for (int k = 0; k < 20; k++) {
+            cloner.clone(new ArrayList<>(list.subList(0, 10)));
+        }
+        assertThat(cloner.getDecision(ArrayList.class).getMode(), equalTo(CloningMode.HYBRID));
+    }
+
+    @Test
+    void testResampling() {
+        AdaptiveCloner cloner = (AdaptiveCloner) Cloners.builder()
+            .mode(CloningMode.ADAPTIVE)
+            .recursionDepth(100)
+            .build();
+
+        cloner.clone(chain(1000));
+        assertThat(cloner.getDecision(Node.class).getMode(), equalTo(CloningMode.SEQUENTIAL));
+        for (int k = 0; k < 64; k++) {
+            cloner.clone(chain(10));
+        }
+        AdaptiveCloner.Decision decision = cloner.getDecision(Node.class);
+        assertThat(decision.getMode(), equalTo(CloningMode.HYBRID));
+        assertThat(decision.getMaxDepth(), equalTo(10));
+    }
+
+    @Test
+    void testCloneAll() {
+        AdaptiveCloner cloner = (AdaptiveCloner) Cloners.builder()
+            .mode(CloningMode.ADAPTIVE)
+            .recursionDepth(100)
+            .parallelThreshold(1_000)
+            .build();
+
+        List<Node> chains = new ArrayList<>();
+        for (int k = 0; k < 10; k++) {
+            chains.add(chain(10));
+        }
+        List<Node> clones = cloner.cloneAll(chains);
+        assertThat(clones.size(), equalTo(10));
+        assertThat(clones.get(0).next, not(sameInstance(chains.get(0).next)));
+        AdaptiveCloner.Decision decision = cloner.getDecision(Node.class);
+        assertThat(decision.getSamples(), equalTo(1L));
+        assertThat(decision.getObjects(), equalTo(10));
+        assertThat(cloner.getDecision(ArrayList.class).getSamples(), equalTo(0L));
+        assertThat(cloner.getDecision(Object[].class).getSamples(), equalTo(0L));
+
+        Node[] array = new Node[100];
+        for (int k = 0; k < array.length; k++) {
+            array[k] = chain(10);
+        }
+        Node[] arrayClones = cloner.cloneAll(array);
+        assertThat(arrayClones.length, equalTo(100));
+        assertThat(arrayClones[99].next, not(sameInstance(array[99].next)));
+        assertThat(cloner.getDecision(Node.class).getSamples(), equalTo(2L));
+    }
+
+}
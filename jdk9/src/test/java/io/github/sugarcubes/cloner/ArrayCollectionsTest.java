@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Stack;
+import java.util.Vector;
+
+import io.github.sugarcubes.cloner.ClonerFixtures.Value;
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests copying of the array-backed collections with {@link ArrayListCopier} and {@link ArrayDequeCopier}.
+ *
+ * @author Maxim Butov
+ */
+public class ArrayCollectionsTest {
+
+    static class NamedList extends ArrayList<Object> {
+        String name = "named";
+    }
+
+    private static <T extends Collection<Object>> T fill(T collection, int changedFrom) {
+        for (int k = 0; k < 100; k++) {
+            collection.add(k < changedFrom ? (Object) ("element" + k) : new Value(k));
+        }
+        return collection;
+    }
+
+    private static void check(Collection<Object> original, Collection<Object> clone) {
+        assertThat(clone, not(sameInstance(original)));
+        assertThat(clone.size(), equalTo(original.size()));
+        List<Object> originals = new ArrayList<>(original);
+        List<Object> clones = new ArrayList<>(clone);
+        for (int k = 0; k < originals.size(); k++) {
+            if (originals.get(k) instanceof Value) {
+                assertThat(clones.get(k), not(sameInstance(originals.get(k))));
+                assertThat(((Value) clones.get(k)).value, equalTo(((Value) originals.get(k)).value));
+            }
+            else {
+                assertThat(clones.get(k), sameInstance(originals.get(k)));
+            }
+        }
+    }
+
+    @Test
+    void testLists() {
+        forAllModes(cloner -> {
+            for (int changedFrom : new int[] {0, 50, 100}) {
+                for (List<Object> original : new List[] {new ArrayList<>(), new Vector<>(), new Stack<>(), new NamedList()}) {
+                    check(fill(original, changedFrom), cloner.clone(original));
+                }
+            }
+            List<Object> original = fill(new ArrayList<>(), 50);
+            original.add(original);
+            List<Object> clone = cloner.clone(original);
+            assertThat(clone.get(100), sameInstance(clone));
+            assertThat(cloner.clone(new NamedList()).name, equalTo("named"));
+        });
+    }
+
+    @Test
+    void testArrayDeque() {
+        forAllModes(cloner -> {
+            for (int changedFrom : new int[] {0, 50, 100}) {
+                ArrayDeque<Object> original = new ArrayDeque<>();
+                for (int k = 0; k < 30; k++) {
+                    original.addFirst("head" + k);
+                }
+                fill(original, changedFrom);
+                for (int k = 0; k < 30; k++) {
+                    original.pollFirst();
+                }
+                ArrayDeque<Object> clone = cloner.clone(original);
+                check(original, clone);
+                clone.addFirst("first");
+                assertThat(clone.peekFirst(), equalTo("first"));
+            }
+            ArrayDeque<Object> original = fill(new ArrayDeque<>(), 50);
+            original.add(original);
+            ArrayDeque<Object> clone = cloner.clone(original);
+            assertThat(clone.peekLast(), sameInstance(clone));
+        });
+    }
+
+}
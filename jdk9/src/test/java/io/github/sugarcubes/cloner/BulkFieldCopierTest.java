@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests {@link BulkFieldCopierFactory}.
+ *
+ * @author Maxim Butov
+ */
+public class BulkFieldCopierTest {
+
+    static class Super {
+        byte superByte = 1;
+        long superLong = 2;
+        Object superObject = new Object();
+    }
+
+    static class Primitives extends Super {
+        boolean z = true;
+        byte b = 3;
+        char c = 'c';
+        short s = 4;
+        int i = 5;
+        int skipped = 6;
+        long l = 7;
+        float f = 8;
+        double d = 9;
+        Object original = new Object();
+        Object nulled = new Object();
+        Object copied = new Object();
+    }
+
+    @Test
+    void testFieldActions() {
+        Cloner cloner = Cloners.builder()
+            .bulk()
+            .fieldAction(Primitives.class, "skipped", CopyAction.SKIP)
+            .fieldAction(Primitives.class, "original", CopyAction.ORIGINAL)
+            .fieldAction(Primitives.class, "nulled", CopyAction.NULL)
+            .build();
+
+        Primitives original = new Primitives();
+        original.superByte = -1;
+        original.superLong = Long.MIN_VALUE;
+        original.skipped = -6;
+        Primitives clone = cloner.clone(original);
+
+        assertThat(clone.superByte, equalTo(original.superByte));
+        assertThat(clone.superLong, equalTo(original.superLong));
+        assertThat(clone.superObject, not(sameInstance(original.superObject)));
+        assertThat(clone.z, equalTo(original.z));
+        assertThat(clone.b, equalTo(original.b));
+        assertThat(clone.c, equalTo(original.c));
+        assertThat(clone.s, equalTo(original.s));
+        assertThat(clone.i, equalTo(original.i));
+        assertThat(clone.skipped, equalTo(0));
+        assertThat(clone.l, equalTo(original.l));
+        assertThat(clone.f, equalTo(original.f));
+        assertThat(clone.d, equalTo(original.d));
+        assertThat(clone.original, sameInstance(original.original));
+        assertThat(clone.nulled, nullValue());
+        assertThat(clone.copied, not(sameInstance(original.copied)));
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link ClassValueCache} and unloading of the classes copied by the cloner.
+ *
+ * @author Maxim Butov
+ */
+public class ClassValueCacheTest {
+
+    static class A {
+    }
+
+    static class B {
+    }
+
+    static class C {
+    }
+
+    public static class Plugin {
+        int value = 1;
+        String name = "plugin";
+        Object child = new int[] {1, 2, 3};
+    }
+
+    @Test
+    void testComputeOnce() {
+        AtomicInteger computed = new AtomicInteger();
+        ClassValueCache<String> cache = new ClassValueCache<>(type -> {
+            computed.incrementAndGet();
+            return type.getSimpleName();
+        });
+        assertThat(cache.getIfPresent(A.class), nullValue());
+        String value = cache.get(A.class);
+        assertThat(value, equalTo("A"));
+        assertThat(cache.get(A.class), sameInstance(value));
+        assertThat(cache.getIfPresent(A.class), sameInstance(value));
+        assertThat(computed.get(), equalTo(1));
+    }
+
+    @Test
+    void testBounded() {
+        AtomicInteger computed = new AtomicInteger();
+        Map<Class<?>, String> initial = Collections.singletonMap(C.class, "initial");
+        ClassValueCache<String> cache = new ClassValueCache<>(initial, type -> type.getSimpleName() + computed.incrementAndGet(), 1);
+        assertThat(cache.get(String.class), equalTo("String1"));
+        assertThat(cache.get(A.class), equalTo("A2"));
+        assertThat(cache.get(B.class), equalTo("B3"));
+        // A is evicted, the bootstrap and the initial classes are not
+        assertThat(cache.getIfPresent(A.class), nullValue());
+        assertThat(cache.get(String.class), equalTo("String1"));
+        assertThat(cache.get(C.class), equalTo("initial"));
+        assertThat(cache.get(A.class), equalTo("A4"));
+        assertThat(cache.getIfPresent(B.class), nullValue());
+    }
+
+    @Test
+    void testBuilder() {
+        assertThrows(IllegalArgumentException.class, () -> Cloners.builder().copierCacheSize(0));
+        Cloner cloner = Cloners.builder().copierCacheSize(1).build();
+        for (int k = 0; k < 3; k++) {
+            A a = new A();
+            B b = new B();
+            assertThat(cloner.clone(a), not(sameInstance(a)));
+            assertThat(cloner.clone(b), not(sameInstance(b)));
+        }
+    }
+
+    @Test
+    void testClassUnloading() throws Exception {
+        Cloner cloner = Cloners.builder().build();
+        WeakReference<ClassLoader> loader = cloneWithPluginLoader(cloner);
+        for (int k = 0; k < 100 && loader.get() != null; k++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(loader.get(), nullValue());
+    }
+
+    private static WeakReference<ClassLoader> cloneWithPluginLoader(Cloner cloner) throws Exception {
+        ClassLoader loader = new CustomClassLoader().reload(Plugin.class.getName());
+        Class<?> type = loader.loadClass(Plugin.class.getName());
+        assertThat(type, not(sameInstance(Plugin.class)));
+        Object original = type.getConstructor().newInstance();
+        Object clone = cloner.clone(original);
+        assertThat(clone, not(sameInstance(original)));
+        assertThat(clone.getClass(), sameInstance(type));
+        return new WeakReference<>(loader);
+    }
+
+}
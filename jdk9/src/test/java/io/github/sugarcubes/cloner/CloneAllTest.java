@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests {@link Cloner#cloneAll(java.util.Collection)} and {@link Cloner#cloneAll(Object[])}.
+ *
+ * @author Maxim Butov
+ */
+public class CloneAllTest {
+
+    static class Request implements Serializable {
+        final int id;
+        final int[] reference;
+
+        Request(int id, int[] reference) {
+            this.id = id;
+            this.reference = reference;
+        }
+    }
+
+    private static void checkClones(List<Request> originals, List<Request> clones) {
+        assertThat(clones.size(), equalTo(originals.size()));
+        for (int k = 0; k < originals.size(); k++) {
+            assertThat(clones.get(k), not(sameInstance(originals.get(k))));
+            assertThat(clones.get(k).id, equalTo(originals.get(k).id));
+            assertThat(clones.get(k).reference, not(sameInstance(originals.get(k).reference)));
+            assertThat(clones.get(k).reference, sameInstance(clones.get(0).reference));
+        }
+        assertThat(clones.get(clones.size() - 1), sameInstance(clones.get(0)));
+    }
+
+    private static List<Request> requests() {
+        int[] reference = {1, 2, 3};
+        List<Request> requests = new ArrayList<>();
+        for (int k = 0; k < 10_000; k++) {
+            requests.add(new Request(k, reference));
+        }
+        requests.add(requests.get(0));
+        return requests;
+    }
+
+    @Test
+    void testCloneAll() {
+        List<Request> requests = requests();
+        checkClones(requests, Cloners.reflection().cloneAll(requests));
+        checkClones(requests, Cloners.builder().mode(CloningMode.PARALLEL).build().cloneAll(requests));
+        checkClones(requests, Cloners.serialization().cloneAll(requests));
+    }
+
+    @Test
+    void testCloneAllArray() {
+        List<Request> requests = requests();
+        Request[] clones = Cloners.reflection().cloneAll(requests.toArray(new Request[0]));
+        assertThat(clones.getClass(), equalTo(Request[].class));
+        checkClones(requests, Arrays.asList(clones));
+    }
+
+}
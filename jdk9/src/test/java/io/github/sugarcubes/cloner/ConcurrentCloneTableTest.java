@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests {@link ConcurrentCloneTable}.
+ *
+ * @author Maxim Butov
+ */
+public class ConcurrentCloneTableTest {
+
+    @Test
+    void testPutAndGet() {
+        CloneTable table = new ConcurrentCloneTable();
+        List<Object> originals = new ArrayList<>();
+        for (int k = 0; k < 10_000; k++) {
+            Object original = new String("original");
+            originals.add(original);
+            table.put(original, new Object[] {original});
+        }
+        for (Object original : originals) {
+            assertThat(((Object[]) table.get(original))[0], sameInstance(original));
+        }
+        assertThat(table.get(new String("original")), nullValue());
+    }
+
+    @Test
+    void testClaimedOnce() throws Exception {
+        CloneTable table = new ConcurrentCloneTable();
+        List<Object> originals = new ArrayList<>();
+        for (int k = 0; k < 100_000; k++) {
+            originals.add(new Object());
+        }
+        AtomicInteger claims = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int k = 0; k < 8; k++) {
+                futures.add(executor.submit(() -> {
+                    for (Object original : originals) {
+                        Object clone = table.claim(original);
+                        if (clone == null) {
+                            claims.incrementAndGet();
+                            table.put(original, new Object[] {original});
+                        }
+                        else {
+                            assertThat(((Object[]) clone)[0], sameInstance(original));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertThat(claims.get(), equalTo(originals.size()));
+    }
+
+    @Test
+    void testRecursiveClaim() {
+        CloneTable table = new ConcurrentCloneTable();
+        Object original = new Object();
+        assertThat(table.claim(original), nullValue());
+        assertThat(table.get(original), nullValue());
+        assertThrows(ClonerException.class, () -> table.claim(original));
+    }
+
+    @Test
+    void testRelease() throws Exception {
+        CloneTable table = new ConcurrentCloneTable();
+        Object original = new Object();
+        assertThat(table.claim(original), nullValue());
+        table.release(original);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> future = executor.submit(() -> table.claim(original));
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertThat(e.getCause(), instanceOf(ClonerException.class));
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testThreadClone() {
+        CloneTable table = new ConcurrentCloneTable();
+        Object original = new Object();
+        Thread clone = new Thread();
+        assertThat(table.claim(original), nullValue());
+        table.put(original, clone);
+        assertThat(table.get(original), sameInstance(clone));
+        assertThat(table.claim(original), sameInstance(clone));
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.github.sugarcubes.cloner.ClonerFixtures.Value;
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests copying of the concurrent collections and the atomic arrays.
+ *
+ * @author Maxim Butov
+ */
+public class ConcurrentCollectionsTest {
+
+    static class Key {
+        int id;
+
+        Key(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+
+    static class KeyComparator implements Comparator<Key> {
+        @Override
+        public int compare(Key key1, Key key2) {
+            return Integer.compare(key1.id, key2.id);
+        }
+    }
+
+    @Test
+    void testConcurrentHashMap() {
+        forAllModes(cloner -> {
+            Map<Object, Object> original = new ConcurrentHashMap<>();
+            for (int k = 0; k < 100; k++) {
+                original.put(k, new Value(k));
+            }
+            original.put(new Value(-1), original);
+            Map<Object, Object> clone = cloner.clone(original);
+            assertThat(clone.size(), equalTo(101));
+            assertThat(((Value) clone.get(7)).value, equalTo(7));
+            assertThat(clone.get(7), not(sameInstance(original.get(7))));
+            Map.Entry<Object, Object> self = clone.entrySet().stream().filter(e -> e.getKey() instanceof Value).findAny().get();
+            assertThat(self.getValue(), sameInstance(clone));
+        });
+    }
+
+    @Test
+    void testNullValues() {
+        forAllModes(() -> Cloners.builder().typeAction(Value.class, CopyAction.NULL), cloner -> {
+            Map<String, Object> hashMap = new ConcurrentHashMap<>();
+            Map<String, Object> skipListMap = new ConcurrentSkipListMap<>();
+            Map<String, Object> hashtable = new Hashtable<>();
+            for (int k = 0; k < 10; k++) {
+                hashMap.put("key" + k, k % 2 == 0 ? new Value(k) : "value" + k);
+                skipListMap.put("key" + k, k % 2 == 0 ? new Value(k) : "value" + k);
+                hashtable.put("key" + k, k % 2 == 0 ? new Value(k) : "value" + k);
+            }
+            for (Map<String, Object> clone : Arrays.asList(cloner.clone(hashMap), cloner.clone(skipListMap), cloner.clone(hashtable))) {
+                assertThat(clone.size(), equalTo(5));
+                assertThat(clone.containsKey("key0"), equalTo(false));
+                assertThat(clone.get("key1"), equalTo("value1"));
+            }
+            Collection<Object> queue = new ConcurrentLinkedQueue<>(Arrays.asList(new Value(0), "x", new Value(1)));
+            Collection<Object> deque = new ConcurrentLinkedDeque<>(Arrays.asList(new Value(0), "x", new Value(1)));
+            for (Collection<Object> clone : Arrays.asList(cloner.clone(queue), cloner.clone(deque))) {
+                assertThat(new ArrayList<>(clone), equalTo(Arrays.asList("x")));
+            }
+        });
+    }
+
+    @Test
+    void testConcurrentSkipListMapAndSet() {
+        forAllModes(cloner -> {
+            ConcurrentSkipListMap<String, Value> map = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+            ConcurrentSkipListSet<String> set = new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+            for (int k = 0; k < 100; k++) {
+                map.put("key" + k, new Value(k));
+                set.add("key" + k);
+            }
+            ConcurrentSkipListMap<String, Value> mapClone = cloner.clone(map);
+            assertThat(mapClone.comparator(), sameInstance(map.comparator()));
+            assertThat(new ArrayList<>(mapClone.keySet()), equalTo(new ArrayList<>(map.keySet())));
+            assertThat(mapClone.get("key7").value, equalTo(7));
+            assertThat(mapClone.get("key7"), not(sameInstance(map.get("key7"))));
+            ConcurrentSkipListSet<String> setClone = cloner.clone(set);
+            assertThat(new ArrayList<>(setClone), equalTo(new ArrayList<>(set)));
+        });
+    }
+
+    @Test
+    void testConcurrentLists() {
+        forAllModes(cloner -> {
+            CopyOnWriteArrayList<Value> list = new CopyOnWriteArrayList<>();
+            ConcurrentLinkedQueue<Value> queue = new ConcurrentLinkedQueue<>();
+            for (int k = 0; k < 100; k++) {
+                list.add(new Value(k));
+                queue.add(list.get(k));
+            }
+            Object[] clones = cloner.cloneAll(list, queue);
+            CopyOnWriteArrayList<Value> listClone = (CopyOnWriteArrayList<Value>) clones[0];
+            ConcurrentLinkedQueue<Value> queueClone = (ConcurrentLinkedQueue<Value>) clones[1];
+            assertThat(listClone.size(), equalTo(100));
+            assertThat(listClone.get(7).value, equalTo(7));
+            assertThat(listClone.get(7), not(sameInstance(list.get(7))));
+            assertThat(new ArrayList<>(queueClone), equalTo(new ArrayList<>(listClone)));
+        });
+    }
+
+    @Test
+    void testAtomicArrays() {
+        forAllModes(cloner -> {
+            AtomicIntegerArray ints = new AtomicIntegerArray(new int[] {1, 2, 3});
+            AtomicLongArray longs = new AtomicLongArray(new long[] {4, 5});
+            AtomicReferenceArray<Object> refs = new AtomicReferenceArray<>(100);
+            for (int k = 0; k < 99; k++) {
+                refs.set(k, new Value(k));
+            }
+            refs.set(99, refs);
+            assertThat(cloner.clone(ints).toString(), equalTo(ints.toString()));
+            assertThat(cloner.clone(longs).toString(), equalTo(longs.toString()));
+            AtomicReferenceArray<Object> clone = cloner.clone(refs);
+            assertThat(((Value) clone.get(7)).value, equalTo(7));
+            assertThat(clone.get(7), not(sameInstance(refs.get(7))));
+            assertThat(clone.get(99), sameInstance(clone));
+        });
+    }
+
+    @Test
+    void testConcurrentModification() throws Exception {
+        Map<Integer, Integer> original = new ConcurrentHashMap<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int k = 0; !stop.get(); k++) {
+                original.put(k % 10_000, k % 10_000);
+                original.remove((k + 5_000) % 10_000);
+            }
+        });
+        writer.start();
+        try {
+            Cloner cloner = Cloners.reflection();
+            for (int k = 0; k < 100; k++) {
+                Map<Integer, Integer> clone = cloner.clone(original);
+                clone.forEach((key, value) -> assertThat(value, equalTo(key)));
+                clone.put(-1, -1);
+                assertThat(clone.get(-1), equalTo(-1));
+            }
+        }
+        finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    void testConcurrentModificationWithMutableKeys() throws Exception {
+        Map<Key, Value> hashMap = new ConcurrentHashMap<>();
+        ConcurrentSkipListMap<Key, Value> skipListMap = new ConcurrentSkipListMap<>(new KeyComparator());
+        int fixed = 100;
+        for (int k = 0; k < fixed; k++) {
+            hashMap.put(new Key(-k - 1), new Value(-k - 1));
+            skipListMap.put(new Key(-k - 1), new Value(-k - 1));
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int k = 0; !stop.get(); k++) {
+                for (Map<Key, Value> map : Arrays.asList(hashMap, skipListMap)) {
+                    map.put(new Key(k % 1_000), new Value(k % 1_000));
+                    map.remove(new Key((k + 500) % 1_000));
+                }
+            }
+        });
+        writer.start();
+        try {
+            forAllModes(cloner -> {
+                for (int pass = 0; pass < 20; pass++) {
+                    for (Map<Key, Value> original : Arrays.asList(hashMap, skipListMap)) {
+                        Map<Key, Value> clone = cloner.clone(original);
+                        assertThat(clone.getClass(), equalTo(original.getClass()));
+                        clone.forEach((key, value) -> {
+                            assertThat(value.value, equalTo(key.id));
+                            assertThat(clone.get(key), sameInstance(value));
+                        });
+                        Key key = new Key(-fixed);
+                        assertThat(clone.get(key).value, equalTo(-fixed));
+                        assertThat(clone.get(key), not(sameInstance(original.get(key))));
+                        assertThat(clone.remove(key) != null, equalTo(true));
+                        assertThat(original.containsKey(key), equalTo(true));
+                    }
+                }
+            });
+        }
+        finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests reuse of the copy contexts by {@link ClonerImpl}.
+ *
+ * @author Maxim Butov
+ */
+public class ContextPoolingTest {
+
+    static class Wrapper {
+        final Object value;
+
+        Wrapper(Object value) {
+            this.value = value;
+        }
+    }
+
+    static class Broken {
+    }
+
+    @Test
+    void testRepeatedClones() {
+        Cloner cloner = Cloners.reflection();
+        Object shared = new int[] {1};
+        Object[] original = {shared, shared};
+        Object[] first = cloner.clone(original);
+        Object[] second = cloner.clone(original);
+        assertThat(first[0], sameInstance(first[1]));
+        assertThat(second[0], sameInstance(second[1]));
+        assertThat(second[0], not(sameInstance(first[0])));
+    }
+
+    @Test
+    void testReentrantClone() {
+        AtomicReference<Cloner> cloner = new AtomicReference<>();
+        cloner.set(Cloners.builder()
+            .copier(Wrapper.class, (ObjectCopier<Wrapper>) (original, context) ->
+                context.register(new Wrapper(cloner.get().clone(original.value))))
+            .build());
+        Object shared = new int[] {1};
+        Object[] original = {shared, new Wrapper(shared), shared};
+        Object[] clone = cloner.get().clone(original);
+        assertThat(clone[0], not(sameInstance(shared)));
+        assertThat(clone[2], sameInstance(clone[0]));
+        Object nested = ((Wrapper) clone[1]).value;
+        assertThat(nested, not(sameInstance(shared)));
+        assertThat(nested, not(sameInstance(clone[0])));
+    }
+
+    @Test
+    void testCloneAfterFailure() {
+        Cloner cloner = Cloners.builder()
+            .copier(Broken.class, (ObjectCopier<Broken>) (original, context) -> {
+                throw new IllegalStateException();
+            })
+            .build();
+        Object shared = new int[] {1};
+        assertThrows(ClonerException.class, () -> cloner.clone(new Object[] {shared, new Broken()}));
+        Object[] clone = cloner.clone(new Object[] {shared, shared});
+        assertThat(clone[0], not(sameInstance(shared)));
+        assertThat(clone[1], sameInstance(clone[0]));
+    }
+
+}
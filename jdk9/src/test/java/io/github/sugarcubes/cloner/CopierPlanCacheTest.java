@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.github.sugarcubes.cloner.ClonerFixtures.Value;
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModeBuilders;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the copier plans shared by the cloners and the cloners derived with {@link Cloner#toBuilder()}.
+ *
+ * @author Maxim Butov
+ */
+public class CopierPlanCacheTest {
+
+    static class Holder {
+        Value value;
+        Object any;
+        int number;
+    }
+
+    private static void forAllBuilders(Consumer<Supplier<ReflectionClonerBuilder>> consumer) {
+        List<Supplier<ReflectionClonerBuilder>> factories = Arrays.asList(
+            Cloners::builder,
+            () -> Cloners.builder().unsafe(),
+            () -> Cloners.builder().bulk(),
+            () -> Cloners.builder().bytecode()
+        );
+        for (Supplier<ReflectionClonerBuilder> factory : factories) {
+            forAllModeBuilders(factory, consumer);
+        }
+    }
+
+    private static Holder holder(int number) {
+        Holder holder = new Holder();
+        holder.value = new Value(number);
+        holder.any = new Value(-number);
+        holder.number = number;
+        return holder;
+    }
+
+    @Test
+    void testDerivedCloner() {
+        forAllBuilders(builder -> {
+            Cloner cloner = builder.get().build();
+            Cloner derived = cloner.toBuilder().typeAction(Value.class, CopyAction.ORIGINAL).build();
+            // the clones alternate, so the shared plan of Holder is used by both cloners
+            for (int pass = 0; pass < 20; pass++) {
+                Holder original = holder(pass);
+                Holder clone = cloner.clone(original);
+                assertThat(clone.value, not(sameInstance(original.value)));
+                assertThat(clone.value.value, equalTo(pass));
+                assertThat(clone.any, not(sameInstance(original.any)));
+                assertThat(((Value) clone.any).value, equalTo(-pass));
+                assertThat(clone.number, equalTo(pass));
+                Holder derivedClone = derived.clone(original);
+                assertThat(derivedClone, not(sameInstance(original)));
+                assertThat(derivedClone.value, sameInstance(original.value));
+                assertThat(derivedClone.any, sameInstance(original.any));
+                assertThat(derivedClone.number, equalTo(pass));
+            }
+        });
+    }
+
+    @Test
+    void testConfiguration() {
+        ReflectionClonerBuilder builder = Cloners.builder().mode(CloningMode.RECURSIVE);
+        Cloner cloner = builder.build();
+        // the builder changes after build() do not affect the cloner
+        builder.typeAction(Value.class, CopyAction.NULL);
+        Holder original = holder(1);
+        assertThat(cloner.clone(original).value.value, equalTo(1));
+        // the builders returned by toBuilder() are independent
+        Cloner derived = cloner.toBuilder().typeAction(Value.class, CopyAction.ORIGINAL).build();
+        Cloner other = cloner.toBuilder().typeAction(Value.class, CopyAction.NULL).build();
+        assertThat(cloner.clone(original).value, not(sameInstance(original.value)));
+        assertThat(derived.clone(original).value, sameInstance(original.value));
+        assertThat(other.clone(original).value, equalTo(null));
+        // the settings which are already set are kept
+        assertThrows(IllegalArgumentException.class, () -> cloner.toBuilder().mode(CloningMode.SEQUENTIAL));
+        assertThrows(UnsupportedOperationException.class, () -> Cloners.serialization().toBuilder());
+    }
+
+    @Test
+    void testMetricsNotInherited() {
+        ProfileMetrics metrics = new ProfileMetrics();
+        Cloner cloner = Cloners.builder().profile(1, metrics).build();
+        ProfileMetrics derivedMetrics = new ProfileMetrics();
+        Cloner derived = cloner.toBuilder().profile(1, derivedMetrics).build();
+        Cloner plain = cloner.toBuilder().build();
+        for (int pass = 0; pass < 3; pass++) {
+            derived.clone(holder(pass));
+            plain.clone(holder(pass));
+        }
+        assertThat(metrics.getSpecializationCount(), equalTo(0));
+        assertThat(derivedMetrics.getSpecializationCount(), greaterThan(0));
+    }
+
+    @Test
+    void testAdaptiveCloner() {
+        Cloner cloner = Cloners.builder().mode(CloningMode.ADAPTIVE).build();
+        Cloner derived = cloner.toBuilder().typeAction(Value.class, CopyAction.ORIGINAL).build();
+        assertThat(derived instanceof AdaptiveCloner, equalTo(true));
+        Holder original = holder(1);
+        assertThat(derived.clone(original).value, sameInstance(original.value));
+        assertThat(cloner.clone(original).value, not(sameInstance(original.value)));
+    }
+
+    @Test
+    void testPlanKey() throws Exception {
+        ObjectFactoryProvider allocator = new UnsafeObjectFactoryProvider();
+        FieldCopierFactory fieldCopierFactory = new ReflectionFieldCopierFactory();
+        Field field = Value.class.getDeclaredField("value");
+        Map<Field, CopyAction> actions = new LinkedHashMap<>();
+        actions.put(field, CopyAction.DEFAULT);
+        ReflectionCopier<Value> plan = CopierPlanCache.get(Value.class, allocator, fieldCopierFactory, null, false, actions);
+        assertThat(CopierPlanCache.get(Value.class, allocator, fieldCopierFactory, null, false, new LinkedHashMap<>(actions)),
+            sameInstance(plan));
+        assertThat(CopierPlanCache.get(Value.class, allocator, fieldCopierFactory, null, true, actions), not(sameInstance(plan)));
+        assertThat(CopierPlanCache.get(Value.class, allocator, new ReflectionFieldCopierFactory(), null, false, actions),
+            not(sameInstance(plan)));
+        actions.put(field, CopyAction.SKIP);
+        assertThat(CopierPlanCache.get(Value.class, allocator, fieldCopierFactory, null, false, actions), not(sameInstance(plan)));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Tests {@link CopyTaskQueue}.
+ *
+ * @author Maxim Butov
+ */
+public class CopyTaskQueueTest {
+
+    private static List<Integer> run(boolean lifo, int count) throws Exception {
+        CopyTaskQueue queue = new CopyTaskQueue(lifo);
+        List<Integer> order = new ArrayList<>();
+        // interleave offering and running, so the ring buffer wraps around before it grows
+        queue.offer(() -> order.add(-1));
+        queue.runNext(null);
+        for (int k = 0; k < count; k++) {
+            int index = k;
+            queue.offer(() -> order.add(index));
+        }
+        while (!queue.isEmpty()) {
+            queue.runNext(null);
+        }
+        return order.subList(1, order.size());
+    }
+
+    @Test
+    void testOrder() throws Exception {
+        assertThat(run(false, 5), equalTo(Arrays.asList(0, 1, 2, 3, 4)));
+        assertThat(run(true, 5), equalTo(Arrays.asList(4, 3, 2, 1, 0)));
+        List<Integer> fifo = run(false, 10_000);
+        for (int k = 0; k < fifo.size(); k++) {
+            assertThat(fifo.get(k), equalTo(k));
+        }
+    }
+
+    @Test
+    void testCopier() throws Exception {
+        CopyTaskQueue queue = new CopyTaskQueue(true);
+        int[] original = {1, 2, 3};
+        int[] clone = new int[3];
+        queue.offer(new TwoPhaseObjectCopier<int[]>() {
+            @Override
+            public int[] allocate(int[] original) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void deepCopy(int[] original, int[] clone, CopyContext context) {
+                System.arraycopy(original, 0, clone, 0, original.length);
+            }
+        }, original, clone);
+        queue.runNext(null);
+        assertThat(clone, equalTo(original));
+        assertThat(queue.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void testClear() {
+        CopyTaskQueue queue = new CopyTaskQueue(false);
+        for (int k = 0; k < 10_000; k++) {
+            queue.offer(() -> null);
+        }
+        queue.clear();
+        assertThat(queue.isEmpty(), equalTo(true));
+        assertThat(queue.capacity(), lessThanOrEqualTo(CopyTaskQueue.MAX_RETAINED_CAPACITY));
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.github.sugarcubes.cloner.ClonerFixtures.Value;
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests the specialization of the reference field copiers: the fields of the immutable final types and the inline
+ * cache of the copiers of the other fields.
+ *
+ * @author Maxim Butov
+ */
+public class FieldSpecializationTest {
+
+    static final class Point {
+        int x;
+        int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static class SubValue extends Value {
+        SubValue(int value) {
+            super(value);
+        }
+    }
+
+    static class Holder {
+        String string;
+        Integer integer;
+        Point point;
+        Object any;
+        Holder next;
+    }
+
+    private static void forAllFactories(Consumer<Cloner> consumer) {
+        List<Supplier<ReflectionClonerBuilder>> builders = Arrays.asList(
+            Cloners::builder,
+            () -> Cloners.builder().unsafe(),
+            () -> Cloners.builder().bulk(),
+            () -> Cloners.builder().bytecode(),
+            () -> Cloners.builder().fieldCopierFactory(new VarHandleFieldCopierFactory())
+        );
+        for (Supplier<ReflectionClonerBuilder> builder : builders) {
+            forAllModes(builder, consumer);
+        }
+    }
+
+    private static Object[] anyValues() {
+        return new Object[] {new Value(1), new SubValue(2), "three", new ArrayList<>(Arrays.asList(new Value(4))),
+            null, new int[] {6}, new Point(7, 7), new StringBuilder("eight"), new Value[] {new Value(9)},
+            new Object[] {new SubValue(10)}, 11L, new Value(12)};
+    }
+
+    private static Holder chain(Object[] anyValues) {
+        Holder head = null;
+        for (int k = anyValues.length - 1; k >= 0; k--) {
+            Holder holder = new Holder();
+            holder.string = "string" + k;
+            holder.integer = k;
+            holder.point = new Point(k, -k);
+            holder.any = anyValues[k];
+            holder.next = head;
+            head = holder;
+        }
+        return head;
+    }
+
+    @Test
+    void testFields() {
+        forAllFactories(cloner -> {
+            // several copies, so the inline caches are used after they are filled by the first one
+            for (int pass = 0; pass < 3; pass++) {
+                Holder original = chain(anyValues());
+                Holder clone = cloner.clone(original);
+                for (Holder o = original, c = clone; o != null; o = o.next, c = c.next) {
+                    assertThat(c, not(sameInstance(o)));
+                    assertThat(c.string, sameInstance(o.string));
+                    assertThat(c.integer, sameInstance(o.integer));
+                    assertThat(c.point, not(sameInstance(o.point)));
+                    assertThat(c.point.x, equalTo(o.point.x));
+                    assertThat(c.point.y, equalTo(o.point.y));
+                    if (o.any == null || o.any instanceof String || o.any instanceof Long) {
+                        assertThat(c.any, sameInstance(o.any));
+                    }
+                    else {
+                        assertThat(c.any, not(sameInstance(o.any)));
+                        assertThat(c.any.getClass(), equalTo(o.any.getClass()));
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    void testSharedObjects() {
+        forAllFactories(cloner -> {
+            Value value = new Value(1);
+            Holder original = chain(new Object[] {value, value, new SubValue(2), value});
+            Holder clone = cloner.clone(original);
+            assertThat(clone.any, sameInstance(clone.next.any));
+            assertThat(clone.any, sameInstance(clone.next.next.next.any));
+            assertThat(((Value) clone.next.next.any).value, equalTo(2));
+        });
+    }
+
+    @Test
+    void testCustomCopier() {
+        ObjectCopier<Point> copier = (original, context) -> context.register(new Point(original.y, original.x));
+        Holder original = chain(new Object[] {new Point(1, 2)});
+        Holder clone = Cloners.builder().copier(Point.class, copier).build().clone(original);
+        assertThat(clone.point.x, equalTo(original.point.y));
+        assertThat(((Point) clone.any).x, equalTo(2));
+    }
+
+    @Test
+    void testTypeAction() {
+        Holder original = chain(new Object[] {new Point(1, 2)});
+        Holder clone = Cloners.builder().typeAction(Point.class, CopyAction.ORIGINAL).build().clone(original);
+        assertThat(clone.point, sameInstance(original.point));
+        assertThat(clone.any, sameInstance(original.any));
+    }
+
+    @Test
+    void testObjectPolicy() {
+        Holder original = chain(new Object[] {"string"});
+        Cloner cloner = Cloners.builder()
+            .objectPolicy(object -> object instanceof String ? CopyAction.NULL : CopyAction.DEFAULT)
+            .build();
+        Holder clone = cloner.clone(original);
+        assertThat(clone.string, nullValue());
+        assertThat(clone.any, nullValue());
+        assertThat(clone.integer, sameInstance(original.integer));
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.github.sugarcubes.cloner.ClonerFixtures.Value;
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests copying of the hash-based collections with {@link HashMapCopier} and {@link HashSetCopier}.
+ *
+ * @author Maxim Butov
+ */
+public class HashCollectionsTest {
+
+    static class Key {
+        int key;
+
+        Key(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).key == key;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key);
+        }
+    }
+
+    @Test
+    void testLinkedHashMapAccessOrder() {
+        forAllModes(cloner -> {
+            Map<String, Value> original = new LinkedHashMap<>(16, 0.75f, true);
+            for (int k = 0; k < 100; k++) {
+                original.put("key" + k, new Value(k));
+            }
+            original.get("key0");
+            Map<String, Value> clone = cloner.clone(original);
+            assertThat(clone, not(sameInstance(original)));
+            assertThat(new ArrayList<>(clone.keySet()), equalTo(new ArrayList<>(original.keySet())));
+            original.forEach((key, value) -> {
+                assertThat(clone.get(key), not(sameInstance(value)));
+                assertThat(clone.get(key).value, equalTo(value.value));
+            });
+            clone.get("key1");
+            assertThat(new ArrayList<>(clone.keySet()).get(99), equalTo("key1"));
+        });
+    }
+
+    @Test
+    void testMutableKeys() {
+        forAllModes(cloner -> {
+            Map<Key, Value> original = new HashMap<>();
+            for (int k = 0; k < 100; k++) {
+                original.put(new Key(k), new Value(k));
+            }
+            Map<Key, Value> clone = cloner.clone(original);
+            assertThat(clone.size(), equalTo(100));
+            for (Map.Entry<Key, Value> entry : clone.entrySet()) {
+                assertThat(original.containsKey(entry.getKey()), equalTo(true));
+                assertThat(original.keySet().stream().anyMatch(key -> key == entry.getKey()), equalTo(false));
+                assertThat(clone.get(new Key(entry.getKey().key)), sameInstance(entry.getValue()));
+                assertThat(entry.getValue().value, equalTo(entry.getKey().key));
+            }
+        });
+    }
+
+    @Test
+    void testHashtable() {
+        forAllModes(cloner -> {
+            Map<Object, Object> original = new Hashtable<>();
+            for (int k = 0; k < 100; k++) {
+                original.put(k, new Value(k));
+            }
+            original.put("self", original);
+            Map<Object, Object> clone = cloner.clone(original);
+            assertThat(clone.size(), equalTo(101));
+            assertThat(clone.get("self"), sameInstance(clone));
+            assertThat(((Value) clone.get(7)).value, equalTo(7));
+            assertThat(clone.get(7), not(sameInstance(original.get(7))));
+        });
+    }
+
+    @Test
+    void testLinkedHashSet() {
+        forAllModes(cloner -> {
+            Set<Object> original = new LinkedHashSet<>();
+            for (int k = 100; k > 0; k--) {
+                original.add("element" + k);
+            }
+            Set<Object> clone = cloner.clone(original);
+            assertThat(clone, not(sameInstance(original)));
+            assertThat(new ArrayList<>(clone), equalTo(new ArrayList<>(original)));
+
+            original.add(new Key(1));
+            Set<Object> mutable = cloner.clone(original);
+            assertThat(mutable.contains(new Key(1)), equalTo(true));
+            assertThat(mutable.stream().filter(Key.class::isInstance).findAny().get(), not(sameInstance(new ArrayList<>(original).get(100))));
+            assertThat(new ArrayList<>(mutable).size(), equalTo(101));
+        });
+    }
+
+}
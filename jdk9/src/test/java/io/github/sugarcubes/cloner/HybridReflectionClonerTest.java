@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+class HybridReflectionClonerTest extends AbstractClonerTests {
+
+    public HybridReflectionClonerTest() {
+        super(Cloners.builder().mode(CloningMode.HYBRID).recursionDepth(2).build());
+    }
+
+    static class Node {
+        int value;
+        Node next;
+    }
+
+    @Test
+    void testDeepGraph() {
+        Node head = null;
+        for (int k = 0; k < 1_000_000; k++) {
+            Node node = new Node();
+            node.value = k;
+            node.next = head;
+            head = node;
+        }
+        Node clone = Cloners.builder().mode(CloningMode.HYBRID).build().clone(head);
+        for (Node node = head; node != null; node = node.next, clone = clone.next) {
+            assertThat(clone, not(sameInstance(node)));
+            assertThat(clone.value, equalTo(node.value));
+        }
+        assertThat(clone, equalTo(null));
+    }
+
+}
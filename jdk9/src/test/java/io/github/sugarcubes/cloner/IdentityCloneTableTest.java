@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests {@link IdentityCloneTable}.
+ *
+ * @author Maxim Butov
+ */
+public class IdentityCloneTableTest {
+
+    @Test
+    void testPutAndGet() {
+        CloneTable table = new IdentityCloneTable();
+        List<Object> originals = new ArrayList<>();
+        for (int k = 0; k < 10_000; k++) {
+            Object original = new String("original");
+            originals.add(original);
+            table.put(original, new Object[] {original});
+        }
+        for (Object original : originals) {
+            assertThat(((Object[]) table.get(original))[0], sameInstance(original));
+        }
+        assertThat(table.get(new String("original")), nullValue());
+    }
+
+    @Test
+    void testReplace() {
+        CloneTable table = new IdentityCloneTable();
+        Object original = new Object();
+        Object clone = new Object();
+        table.put(original, new Object());
+        table.put(original, clone);
+        assertThat(table.get(original), sameInstance(clone));
+    }
+
+    @Test
+    void testClear() {
+        IdentityCloneTable table = new IdentityCloneTable();
+        Object original = new Object();
+        table.put(original, new Object());
+        table.clear();
+        assertThat(table.get(original), nullValue());
+        for (int k = 0; k < 10_000; k++) {
+            table.put(new Object(), new Object());
+        }
+        table.clear();
+        assertThat(table.get(original), nullValue());
+        assertThat(table.capacity(), lessThanOrEqualTo(IdentityCloneTable.MAX_RETAINED_CAPACITY));
+        Object clone = new Object();
+        table.put(original, clone);
+        assertThat(table.get(original), equalTo(clone));
+    }
+
+    @Test
+    void testEnsureCapacity() {
+        IdentityCloneTable table = new IdentityCloneTable();
+        table.ensureCapacity(1000);
+        int capacity = table.capacity();
+        for (int k = 0; k < 1000; k++) {
+            table.put(new Object(), new Object());
+        }
+        assertThat(table.size(), equalTo(1000));
+        assertThat(table.capacity(), equalTo(capacity));
+    }
+
+}
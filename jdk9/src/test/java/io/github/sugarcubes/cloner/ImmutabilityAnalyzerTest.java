@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests {@link ImmutabilityAnalyzer}.
+ *
+ * @author Maxim Butov
+ */
+public class ImmutabilityAnalyzerTest {
+
+    static final class Point {
+        final int x;
+        final int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    static final class Segment {
+        final Point from;
+        final Point to;
+        final String name;
+        final LocalDate date = LocalDate.now();
+
+        Segment(Point from, Point to, String name) {
+            this.from = from;
+            this.to = to;
+            this.name = name;
+        }
+    }
+
+    static final class Cons {
+        final int head;
+        final Cons tail;
+
+        Cons(int head, Cons tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+    }
+
+    static final class MutableField {
+        int value;
+    }
+
+    static final class NonFinalFieldType {
+        final Object value = new Object();
+    }
+
+    static final class CollectionField {
+        final List<String> value = null;
+    }
+
+    static final class MutableNested {
+        final MutableField nested = new MutableField();
+    }
+
+    static class NonFinalPoint {
+        final int x = 0;
+    }
+
+    static final class NonFinalNested {
+        final NonFinalPoint point = new NonFinalPoint();
+    }
+
+    static final class Cycle {
+        final CycleBack back = null;
+        final int[] array = null;
+    }
+
+    static final class CycleBack {
+        final Cycle cycle = null;
+    }
+
+    @Test
+    void testInference() {
+        ImmutabilityAnalyzer analyzer = new ImmutabilityAnalyzer();
+
+        assertThat(analyzer.isImmutable(Point.class), equalTo(true));
+        assertThat(analyzer.isImmutable(Segment.class), equalTo(true));
+        assertThat(analyzer.isImmutable(Cons.class), equalTo(true));
+        assertThat(analyzer.isImmutable(NonFinalPoint.class), equalTo(true));
+
+        assertThat(analyzer.isImmutable(MutableField.class), equalTo(false));
+        assertThat(analyzer.isImmutable(NonFinalFieldType.class), equalTo(false));
+        assertThat(analyzer.isImmutable(CollectionField.class), equalTo(false));
+        assertThat(analyzer.isImmutable(MutableNested.class), equalTo(false));
+        assertThat(analyzer.isImmutable(NonFinalNested.class), equalTo(false));
+        assertThat(analyzer.isImmutable(Cycle.class), equalTo(false));
+        assertThat(analyzer.isImmutable(CycleBack.class), equalTo(false));
+        assertThat(analyzer.isImmutable(int[].class), equalTo(false));
+
+        assertThat(analyzer.getResults().get(Point.class), equalTo(true));
+        assertThat(analyzer.getResults().get(MutableField.class), equalTo(false));
+    }
+
+    @Test
+    void testCloning() {
+        Point from = new Point(1, 2);
+        Segment segment = new Segment(from, new Point(3, 4), "segment");
+
+        Cloner cloner = Cloners.builder().inferImmutability().build();
+        assertThat(cloner.clone(from), sameInstance(from));
+        assertThat(cloner.clone(segment), sameInstance(segment));
+        MutableNested mutable = new MutableNested();
+        assertThat(cloner.clone(mutable), not(sameInstance(mutable)));
+
+        Cloner nulling = Cloners.builder().inferImmutability().fieldAction(Point.class, "x", CopyAction.SKIP).build();
+        assertThat(nulling.clone(from), not(sameInstance(from)));
+        assertThat(nulling.clone(segment), not(sameInstance(segment)));
+        assertThat(nulling.clone(segment).from.x, equalTo(0));
+        assertThat(nulling.clone(segment).to.y, equalTo(4));
+
+        Cloner nullPoints = Cloners.builder().inferImmutability().typeAction(Point.class, CopyAction.NULL).build();
+        assertThat(nullPoints.clone(segment).from, equalTo(null));
+    }
+
+}
@@ -15,11 +15,14 @@
  */
 package io.github.sugarcubes.cloner;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
@@ -27,7 +30,7 @@ import static org.hamcrest.Matchers.sameInstance;
 
 /**
  * Tests of the cloning of immutable collections created with {@link List#of(Object[])}, {@link Set#of(Object[])}
- * and {@link Map#of(Object, Object)}.
+ * and {@link Map#of(Object, Object)}. The collections of immutable elements are copied by reference.
  *
  * @author Maxim Butov
  */
@@ -39,11 +42,21 @@ public class ImmutableCollectionsTest {
     }
 
     <T> void testImmutableCollectionClone(T original) {
+        T clone = Cloners.reflection().clone(original);
+        assertThat(clone, sameInstance(original));
+    }
+
+    <T> void testMutableElementsClone(T original) {
         T clone = Cloners.reflection().clone(original);
         assertThat(clone, not(sameInstance(original)));
+        assertThat(clone.getClass(), sameInstance(original.getClass()));
         assertThat(clone, equalTo(original));
     }
 
+    static class Holder {
+        List<Object> list;
+    }
+
     @Test
     void testImmutableCollections() {
         testEmptyCollectionClone(List.of());
@@ -54,6 +67,39 @@ public class ImmutableCollectionsTest {
         testImmutableCollectionClone(Set.of(1, 2));
         testEmptyCollectionClone(Map.of());
         testImmutableCollectionClone(Map.of(1, 2));
+        testImmutableCollectionClone(List.of(1, 2, 3).subList(0, 2));
+        testImmutableCollectionClone(List.of(List.of("a"), Set.of("b"), Collections.singletonList("c")));
+        testImmutableCollectionClone(Collections.singletonMap("a", "b"));
+    }
+
+    @Test
+    void testMutableElements() {
+        testMutableElementsClone(List.of(new ArrayList<>(List.of(1))));
+        testMutableElementsClone(List.of(1, 2, new ArrayList<>(List.of(1))));
+        testMutableElementsClone(Set.of(new ArrayList<>(List.of(1))));
+        testMutableElementsClone(Map.of(1, new ArrayList<>(List.of(1)), 2, 3));
+        testMutableElementsClone(List.of(List.of(new ArrayList<>(List.of(1)))));
+        testMutableElementsClone(Collections.singletonList(new ArrayList<>(List.of(1))));
+        testMutableElementsClone(Collections.unmodifiableList(new ArrayList<>(List.of(1))));
+
+        List<Object> element = new ArrayList<>(List.of(1));
+        List<Object> original = List.of(element, element);
+        List<Object> clone = Cloners.reflection().clone(original);
+        assertThat(clone.get(0), not(sameInstance(element)));
+        assertThat(clone.get(1), sameInstance(clone.get(0)));
+    }
+
+    @Test
+    void testCycle() {
+        forAllModes(cloner -> {
+            Holder original = new Holder();
+            original.list = List.of(original, "a");
+            Holder clone = cloner.clone(original);
+            assertThat(clone, not(sameInstance(original)));
+            assertThat(clone.list, not(sameInstance(original.list)));
+            assertThat(clone.list.get(0), sameInstance(clone));
+            assertThat(clone.list.get(1), equalTo("a"));
+        });
     }
 
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests predefined clones and singletons.
+ *
+ * @author Maxim Butov
+ */
+public class PredefinedClonesTest {
+
+    @Test
+    void testPredefinedClones() {
+        Object singleton = new Object();
+        Object original = new Object();
+        Object predefinedClone = new Object();
+
+        forAllModes(() -> Cloners.builder().singleton(singleton).clone(original, predefinedClone), cloner -> {
+            List<Object> list = new ArrayList<>(Arrays.asList(singleton, original, new Object()));
+            List<Object> clone = cloner.clone(list);
+
+            assertThat(clone, not(sameInstance(list)));
+            assertThat(clone.get(0), sameInstance(singleton));
+            assertThat(clone.get(1), sameInstance(predefinedClone));
+            assertThat(clone.get(2), not(sameInstance(list.get(2))));
+            assertThat(cloner.clone(singleton), sameInstance(singleton));
+            assertThat(cloner.clone(original), sameInstance(predefinedClone));
+        });
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.github.sugarcubes.cloner.ClonerFixtures.Value;
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModeBuilders;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests profile-guided specialization of the copiers.
+ *
+ * @author Maxim Butov
+ */
+public class ProfileGuidedTest {
+
+    static class SubValue extends Value {
+        SubValue(int value) {
+            super(value);
+        }
+    }
+
+    static class Holder {
+        Object value;
+        List<Object> list;
+        Object name;
+        Object empty;
+        Object shared;
+    }
+
+    private static final int SAMPLES = 4;
+
+    private static void forAllFactories(Consumer<Supplier<ReflectionClonerBuilder>> consumer) {
+        List<Supplier<ReflectionClonerBuilder>> builders = Arrays.asList(
+            Cloners::builder,
+            () -> Cloners.builder().unsafe(),
+            () -> Cloners.builder().bulk(),
+            () -> Cloners.builder().bytecode(),
+            () -> Cloners.builder().fieldCopierFactory(new VarHandleFieldCopierFactory())
+        );
+        for (Supplier<ReflectionClonerBuilder> builder : builders) {
+            forAllModeBuilders(builder, consumer);
+        }
+    }
+
+    private static Holder holder(Value value) {
+        Holder holder = new Holder();
+        holder.value = value;
+        holder.list = new ArrayList<>(Arrays.asList(new Value(1), "two"));
+        holder.name = "name";
+        holder.shared = value;
+        return holder;
+    }
+
+    private static void check(Holder original, Holder clone) {
+        assertThat(clone, not(sameInstance(original)));
+        assertThat(clone.value, not(sameInstance(original.value)));
+        assertThat(clone.value.getClass(), equalTo(original.value.getClass()));
+        assertThat(((Value) clone.value).value, equalTo(((Value) original.value).value));
+        assertThat(clone.shared, sameInstance(clone.value));
+        assertThat(clone.list, not(sameInstance(original.list)));
+        assertThat(((Value) clone.list.get(0)).value, equalTo(1));
+        assertThat(clone.name, sameInstance(original.name));
+        assertThat(clone.empty, nullValue());
+    }
+
+    @Test
+    void testSpecialization() {
+        forAllFactories(builder -> {
+            ProfileMetrics metrics = new ProfileMetrics();
+            Cloner cloner = builder.get().profile(SAMPLES, metrics).build();
+            for (int k = 0; k < SAMPLES * 2; k++) {
+                Holder original = holder(new Value(k));
+                check(original, cloner.clone(original));
+            }
+            assertThat(metrics.getSpecializedTypes(), equalTo(Collections.<Class<?>>singleton(Holder.class)));
+            assertThat(metrics.getSpecializationCount(), equalTo(1));
+            assertThat(metrics.getGuardCount(), equalTo(5));
+            assertThat(metrics.getGuardedValues(), greaterThan(0L));
+            assertThat(metrics.getGuardMisses(), equalTo(0L));
+            assertThat(metrics.getGuardMissRate(), equalTo(0.0));
+        });
+    }
+
+    @Test
+    void testGuardMiss() {
+        forAllFactories(builder -> {
+            ProfileMetrics metrics = new ProfileMetrics();
+            Cloner cloner = builder.get().profile(SAMPLES, metrics).build();
+            for (int k = 0; k < SAMPLES; k++) {
+                cloner.clone(holder(new Value(k)));
+            }
+            Holder original = holder(new SubValue(SAMPLES));
+            original.empty = new Value(-1);
+            original.name = new StringBuilder("name");
+            Holder clone = cloner.clone(original);
+            assertThat(clone.value, not(sameInstance(original.value)));
+            assertThat(clone.value.getClass(), equalTo(SubValue.class));
+            assertThat(clone.shared, sameInstance(clone.value));
+            assertThat(clone.empty, not(sameInstance(original.empty)));
+            assertThat(((Value) clone.empty).value, equalTo(-1));
+            assertThat(clone.name, not(sameInstance(original.name)));
+            assertThat(clone.name.toString(), equalTo("name"));
+            assertThat(metrics.getGuardMisses(), greaterThan(0L));
+            assertThat(metrics.getGuardMissRate(), greaterThan(0.0));
+        });
+    }
+
+    @Test
+    void testPolymorphicField() {
+        ProfileMetrics metrics = new ProfileMetrics();
+        Cloner cloner = Cloners.builder().profile(SAMPLES, metrics).build();
+        for (int k = 0; k < SAMPLES; k++) {
+            Holder original = holder(k % 2 == 0 ? new Value(k) : new SubValue(k));
+            check(original, cloner.clone(original));
+        }
+        assertThat(metrics.getSpecializedTypes(), equalTo(Collections.<Class<?>>singleton(Holder.class)));
+        // value and shared fields are polymorphic, so, they are not guarded
+        assertThat(metrics.getGuardCount(), equalTo(3));
+    }
+
+    @Test
+    void testObjectPolicy() {
+        ProfileMetrics metrics = new ProfileMetrics();
+        Cloner cloner = Cloners.builder()
+            .objectPolicy(object -> CopyAction.DEFAULT)
+            .profile(SAMPLES, metrics)
+            .build();
+        for (int k = 0; k < SAMPLES * 2; k++) {
+            Holder original = holder(new Value(k));
+            check(original, cloner.clone(original));
+        }
+        assertThat(metrics.getSpecializationCount(), equalTo(0));
+    }
+
+    @Test
+    void testBuilder() {
+        assertThrows(IllegalArgumentException.class, () -> Cloners.builder().profile(0, new ProfileMetrics()));
+        assertThrows(IllegalArgumentException.class, () -> Cloners.builder().profile(1, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> Cloners.builder().profile(1, new ProfileMetrics()).profile(1, new ProfileMetrics()));
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests registration of the clones by the copiers.
+ *
+ * @author Maxim Butov
+ */
+public class RegistrationTest {
+
+    static class Point {
+        int x;
+        int y;
+        Point next;
+    }
+
+    static class PointCopier extends TwoPhaseObjectCopier<Point> {
+
+        @Override
+        public Point allocate(Point original) {
+            return new Point();
+        }
+
+        @Override
+        public void deepCopy(Point original, Point clone, CopyContext context) throws Exception {
+            clone.x = original.x;
+            clone.y = original.y;
+            clone.next = context.copy(original.next);
+        }
+
+    }
+
+    static class UnregisteredPointCopier extends PointCopier {
+
+        @Override
+        public Point copy(Point original, CopyContext context) {
+            return new Point();
+        }
+
+    }
+
+    private static Point cycle() {
+        Point point = new Point();
+        point.x = 1;
+        point.y = 2;
+        point.next = new Point();
+        point.next.next = point;
+        return point;
+    }
+
+    @Test
+    void testStandardTwoPhaseCopier() {
+        forAllModes(() -> Cloners.builder().copier(Point.class, new PointCopier()), cloner -> {
+            Point original = cycle();
+            Point clone = cloner.clone(original);
+            assertThat(clone, not(sameInstance(original)));
+            assertThat(clone.x, equalTo(1));
+            assertThat(clone.y, equalTo(2));
+            assertThat(clone.next, not(sameInstance(original.next)));
+            assertThat(clone.next.next, sameInstance(clone));
+        });
+    }
+
+    @Test
+    void testRegistrationMismatch() {
+        Cloner overridden = Cloners.builder().copier(Point.class, new UnregisteredPointCopier()).build();
+        assertThrows(ClonerException.class, () -> overridden.clone(cycle()));
+        Cloner custom = Cloners.builder().copier(Point.class, (ObjectCopier<Point>) (original, context) -> new Point()).build();
+        assertThrows(ClonerException.class, () -> custom.clone(cycle()));
+    }
+
+}
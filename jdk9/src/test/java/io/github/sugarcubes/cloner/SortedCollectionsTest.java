@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests copying of the sorted collections, which must not call the comparator.
+ *
+ * @author Maxim Butov
+ */
+public class SortedCollectionsTest {
+
+    static final AtomicInteger COMPARISONS = new AtomicInteger();
+
+    static class Key {
+        int key;
+
+        Key(int key) {
+            this.key = key;
+        }
+    }
+
+    static class KeyComparator implements Comparator<Key> {
+        @Override
+        public int compare(Key o1, Key o2) {
+            COMPARISONS.incrementAndGet();
+            return Integer.compare(o2.key, o1.key);
+        }
+    }
+
+    private static List<Integer> keys(Iterable<Key> keys) {
+        List<Integer> list = new ArrayList<>();
+        keys.forEach(key -> list.add(key.key));
+        return list;
+    }
+
+    @Test
+    void testTreeMap() {
+        forAllModes(cloner -> {
+            TreeMap<Key, Object> original = new TreeMap<>(new KeyComparator());
+            for (int k = 0; k < 100; k++) {
+                original.put(new Key(k), k % 2 == 0 ? new Key(-k) : original);
+            }
+            COMPARISONS.set(0);
+            TreeMap<Key, Object> clone = cloner.clone(original);
+            assertThat(COMPARISONS.get(), equalTo(0));
+            assertThat(clone.comparator(), sameInstance(original.comparator()));
+            assertThat(keys(clone.keySet()), equalTo(keys(original.keySet())));
+            for (Map.Entry<Key, Object> entry : clone.entrySet()) {
+                assertThat(entry.getValue(), entry.getKey().key % 2 == 0 ? not(sameInstance(clone)) : sameInstance(clone));
+            }
+            assertThat(clone.firstKey(), not(sameInstance(original.firstKey())));
+            assertThat(clone.containsKey(new Key(50)), equalTo(true));
+            clone.put(new Key(1000), null);
+            assertThat(clone.firstKey().key, equalTo(1000));
+        });
+    }
+
+    @Test
+    void testTreeSet() {
+        forAllModes(cloner -> {
+            TreeSet<Key> original = new TreeSet<>(new KeyComparator());
+            for (int k = 0; k < 100; k++) {
+                original.add(new Key(k));
+            }
+            COMPARISONS.set(0);
+            TreeSet<Key> clone = cloner.clone(original);
+            assertThat(COMPARISONS.get(), equalTo(0));
+            assertThat(keys(clone), equalTo(keys(original)));
+            assertThat(clone.first(), not(sameInstance(original.first())));
+            assertThat(clone.contains(new Key(50)), equalTo(true));
+
+            TreeSet<String> strings = new TreeSet<>();
+            strings.add("b");
+            strings.add("a");
+            assertThat(new ArrayList<>(cloner.clone(strings)), equalTo(new ArrayList<>(strings)));
+            assertThat(cloner.clone(new TreeSet<>()).isEmpty(), equalTo(true));
+        });
+    }
+
+    @Test
+    void testPriorityQueue() {
+        forAllModes(cloner -> {
+            PriorityQueue<Key> original = new PriorityQueue<>(new KeyComparator());
+            for (int k = 0; k < 100; k++) {
+                original.add(new Key(k));
+            }
+            COMPARISONS.set(0);
+            PriorityQueue<Key> clone = cloner.clone(original);
+            assertThat(COMPARISONS.get(), equalTo(0));
+            assertThat(keys(clone), equalTo(keys(original)));
+            assertThat(clone.poll().key, equalTo(99));
+        });
+    }
+
+}
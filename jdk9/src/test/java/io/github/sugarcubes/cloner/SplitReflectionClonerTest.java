@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+class SplitReflectionClonerTest extends AbstractClonerTests {
+
+    public SplitReflectionClonerTest() {
+        super(Cloners.builder().mode(CloningMode.PARALLEL).splitThreshold(2).build());
+    }
+
+    @Test
+    void testSplitCollections() {
+        List<int[]> shared = IntStream.range(0, 100).mapToObj(k -> new int[] {k}).collect(Collectors.toList());
+        Object[] array = new Object[1000];
+        List<Object> list = new ArrayList<>();
+        Map<Object, Object> map = new IdentityHashMap<>();
+        for (int k = 0; k < array.length; k++) {
+            array[k] = shared.get(k % shared.size());
+            list.add(shared.get(k % shared.size()));
+            map.put(new int[] {k}, shared.get(k % shared.size()));
+        }
+        Object[] clone = cloner.clone(new Object[] {array, list, map, shared});
+        List<int[]> sharedClone = (List<int[]>) clone[3];
+        Object[] arrayClone = (Object[]) clone[0];
+        List<Object> listClone = (List<Object>) clone[1];
+        Map<Object, Object> mapClone = (Map<Object, Object>) clone[2];
+        for (int k = 0; k < shared.size(); k++) {
+            assertThat(sharedClone.get(k), not(sameInstance(shared.get(k))));
+            assertThat(sharedClone.get(k)[0], equalTo(k));
+        }
+        for (int k = 0; k < array.length; k++) {
+            assertThat(arrayClone[k], sameInstance(sharedClone.get(k % shared.size())));
+            assertThat(listClone.get(k), sameInstance(sharedClone.get(k % shared.size())));
+        }
+        assertThat(mapClone.size(), equalTo(map.size()));
+        mapClone.forEach((key, value) -> assertThat(value, sameInstance(sharedClone.get(((int[]) key)[0] % shared.size()))));
+    }
+
+}
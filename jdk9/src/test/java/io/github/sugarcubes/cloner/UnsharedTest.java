@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModes;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests cloning of the objects declared as unshared.
+ *
+ * @author Maxim Butov
+ */
+public class UnsharedTest {
+
+    static class Node {
+        int value;
+        List<Node> children = new ArrayList<>();
+
+        Node(int value, Node... children) {
+            this.value = value;
+            this.children.addAll(Arrays.asList(children));
+        }
+    }
+
+    @Unshared
+    static class AnnotatedNode {
+        Object value = new Object();
+    }
+
+    static void assertTreeCloned(Node original, Node clone) {
+        assertThat(clone, not(sameInstance(original)));
+        assertThat(clone.value, equalTo(original.value));
+        assertThat(clone.children.size(), equalTo(original.children.size()));
+        for (int k = 0; k < original.children.size(); k++) {
+            assertTreeCloned(original.children.get(k), clone.children.get(k));
+        }
+    }
+
+    @Test
+    void testTree() {
+        Node tree = new Node(1, new Node(2, new Node(3), new Node(4)), new Node(5, new Node(6)));
+        forAllModes(() -> Cloners.builder().tree(), cloner -> assertTreeCloned(tree, cloner.clone(tree)));
+    }
+
+    @Test
+    void testUnsharedType() {
+        Node tree = new Node(1, new Node(2), new Node(3));
+        Cloner cloner = Cloners.builder().unshared(Node.class).build();
+        assertTreeCloned(tree, cloner.clone(tree));
+    }
+
+    @Test
+    void testViolation() {
+        Node shared = new Node(2);
+        Node dag = new Node(1, shared, shared);
+        Cloner cloner = Cloners.builder().unshared(Node.class).build();
+        Assertions.assertThrows(ClonerException.class, () -> cloner.clone(dag));
+
+        AnnotatedNode annotated = new AnnotatedNode();
+        List<AnnotatedNode> list = Arrays.asList(annotated, annotated);
+        Assertions.assertThrows(ClonerException.class, () -> Cloners.reflection().clone(list));
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.sugarcubes.cloner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static io.github.sugarcubes.cloner.ClonerFixtures.forAllModeBuilders;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the warm-up of the copiers at build time.
+ *
+ * @author Maxim Butov
+ */
+public class WarmUpTest {
+
+    static class Twig {
+        int value;
+    }
+
+    static class Leaf {
+        Twig twig = new Twig();
+    }
+
+    static class Branch {
+        Leaf leaf = new Leaf();
+        Leaf[] leaves = {new Leaf(), new Leaf()};
+    }
+
+    static class Root {
+        Branch branch = new Branch();
+        List<Leaf> list = new ArrayList<>(Collections.singletonList(new Leaf()));
+        String name = "root";
+    }
+
+    /**
+     * Allocator which counts the created object factories.
+     */
+    static class CountingAllocator implements ObjectFactoryProvider {
+
+        final ObjectFactoryProvider allocator = new UnsafeObjectFactoryProvider();
+
+        final AtomicInteger factories = new AtomicInteger();
+
+        @Override
+        public <T> ObjectFactory<T> getFactory(Class<T> type) {
+            factories.incrementAndGet();
+            return allocator.getFactory(type);
+        }
+
+    }
+
+    @Test
+    void testPreparedTypes() {
+        forAllModeBuilders(Cloners::builder, builder -> {
+            WarmUpMetrics metrics = new WarmUpMetrics();
+            Cloner cloner = builder.get().warmUp(Root.class).warmUpMetrics(metrics).build();
+            assertThat(metrics.getPreparedTypes().containsAll(Arrays.asList(Root.class, Branch.class, Leaf.class, Leaf[].class, Twig.class)),
+                equalTo(true));
+            // the element types of the collections are unknown, the abstract types are not prepared
+            assertThat(metrics.getPreparedTypes().contains(List.class), equalTo(false));
+            assertThat(metrics.getPreparedCount(), equalTo(metrics.getPreparedTypes().size()));
+            assertThat(metrics.getFailedTypes().isEmpty(), equalTo(true));
+            assertThat(metrics.getDuration(TimeUnit.NANOSECONDS), greaterThan(0L));
+            Root original = new Root();
+            Root clone = cloner.clone(original);
+            assertThat(clone.branch.leaves[1], not(sameInstance(original.branch.leaves[1])));
+            assertThat(clone.list.get(0), not(sameInstance(original.list.get(0))));
+        });
+    }
+
+    @Test
+    void testNoLazyCreation() {
+        CountingAllocator allocator = new CountingAllocator();
+        Cloner cloner = Cloners.builder().objectFactoryProvider(allocator).fieldCopierFactory(new UnsafeFieldCopierFactory())
+            .warmUp(Root.class, Leaf.class).build();
+        int factories = allocator.factories.get();
+        assertThat(factories, greaterThan(0));
+        cloner.clone(new Root());
+        assertThat(allocator.factories.get(), equalTo(factories));
+    }
+
+    @Test
+    void testDerivedCloner() {
+        WarmUpMetrics metrics = new WarmUpMetrics();
+        Cloner cloner = Cloners.builder().warmUp(Root.class).warmUpMetrics(metrics).build();
+        assertThat(metrics.getPreparedTypes().contains(Twig.class), equalTo(true));
+        Set<Class<?>> prepared = metrics.getPreparedTypes();
+        WarmUpMetrics derivedMetrics = new WarmUpMetrics();
+        Cloner derived = cloner.toBuilder().typeAction(Leaf.class, CopyAction.ORIGINAL).warmUpMetrics(derivedMetrics).build();
+        // the metrics of the cloner are not affected by the derived one
+        assertThat(metrics.getPreparedTypes(), sameInstance(prepared));
+        // the root types are inherited, but the leaves are not copied, so the types reachable from them are not prepared
+        assertThat(derivedMetrics.getPreparedTypes().containsAll(Arrays.asList(Root.class, Branch.class, Leaf.class)),
+            equalTo(true));
+        assertThat(derivedMetrics.getPreparedTypes().contains(Twig.class), equalTo(false));
+        assertThat(derivedMetrics.getFailedTypes().isEmpty(), equalTo(true));
+        Root original = new Root();
+        assertThat(derived.clone(original).branch.leaf, sameInstance(original.branch.leaf));
+        assertThat(cloner.clone(original).branch.leaf, not(sameInstance(original.branch.leaf)));
+    }
+
+    @Test
+    void testIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Cloners.builder().warmUp((Class<?>) null));
+        WarmUpMetrics metrics = new WarmUpMetrics();
+        assertThrows(IllegalArgumentException.class, () -> Cloners.builder().warmUpMetrics(metrics).warmUpMetrics(metrics));
+    }
+
+}
@@ -5,6 +5,7 @@ include("jdk9")
 include("jdk9-module")
 include("jdk15")
 include("jdk16")
+include("jdk21")
 include("sugar-cubes-cloner")
 
 if (file("incubator").isDirectory) {
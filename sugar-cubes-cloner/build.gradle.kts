@@ -13,6 +13,7 @@ val clonerModules = listOf(
     project(":jdk9-module"),
     project(":jdk15"),
     project(":jdk16"),
+    project(":jdk21"),
 )
 
 java {
@@ -71,6 +72,10 @@ tasks.named<Jar>("jar") {
         from(project(":jdk16").sourceSets.main.get().output)
     }
 
+    into("META-INF/versions/21") {
+        from(project(":jdk21").sourceSets.main.get().output)
+    }
+
     clonerModules.forEach {
         dependsOn(it.tasks.named<Jar>("jar"))
         manifest {
@@ -83,13 +88,13 @@ tasks.named<Jar>("jar") {
 tasks.withType<Javadoc> {
     javadocTool.set(
         javaToolchains.javadocToolFor {
-            languageVersion.set(JavaLanguageVersion.of(17))
+            languageVersion.set(JavaLanguageVersion.of(21))
         }
     )
     enabled = true
     val opts = options as StandardJavadocDocletOptions
     opts.links(
-        "https://docs.oracle.com/en/java/javase/17/docs/api/",
+        "https://docs.oracle.com/en/java/javase/21/docs/api/",
     )
 
     val modulePaths = mutableSetOf<File>()